@@ -0,0 +1,61 @@
+package com.indeed.jiraactions;
+
+import com.indeed.jiraactions.api.customfields.CustomFieldApiParser;
+import com.indeed.jiraactions.api.customfields.CustomFieldDefinition;
+import com.indeed.jiraactions.api.response.issue.Issue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building every action for one issue with {@code events} histories and as many comments, including the custom
+ * fields from example-custom-fields.json. {@link #buildActionsInRange} only wants the last day's worth, like a daily
+ * run over a long-lived issue.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ActionsBuilderBenchmark {
+    @Param({"10", "100", "1000", "5000"})
+    public int events;
+
+    private ActionFactory actionFactory;
+    private Issue issue;
+
+    @Setup
+    public void setup() throws IOException {
+        final CustomFieldDefinition[] customFields = JiraFixtures.customFields();
+        final UserLookupService userLookupService = new FriendlyUserLookupService();
+        actionFactory = new ActionFactory(userLookupService, new CustomFieldApiParser(userLookupService),
+                JiraFixtures.config(customFields, "jira"));
+        issue = JiraFixtures.parse(JiraFixtures.issue(new Random(42), "ABC-1", events, events));
+    }
+
+    @Benchmark
+    public List<Action> buildActions() throws IOException {
+        return new ActionsBuilder(actionFactory, issue, JiraFixtures.START,
+                JiraFixtures.START.plusDays(JiraFixtures.DAYS + 1)).buildActions();
+    }
+
+    @Benchmark
+    public List<Action> buildActionsInRange() throws IOException {
+        return new ActionsBuilder(actionFactory, issue, JiraFixtures.START.plusDays(JiraFixtures.DAYS - 1),
+                JiraFixtures.START.plusDays(JiraFixtures.DAYS)).buildActionsInRange();
+    }
+}
@@ -0,0 +1,74 @@
+package com.indeed.jiraactions;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A whole run against a {@link JiraFixtureServer}: paging through the search, looking up users and link types,
+ * building actions and writing the TSVs, including the second pass an issue updated mid-run causes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JiraActionsIndexBuilderBenchmark {
+    @Param({"200"})
+    public int issues;
+
+    @Param({"0", "5"})
+    public int latencyMillis;
+
+    private JiraFixtureServer server;
+    private File directory;
+    private JiraActionsIndexBuilderConfig config;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("run-benchmark").toFile();
+        final Random random = new Random(42);
+        server = JiraFixtureServer.start().withLatency(latencyMillis);
+        for (int i = issues; i > 0; i--) {
+            server.addIssue(JiraFixtures.issue(random, "ABC-" + i, random.nextInt(50), random.nextInt(10)));
+        }
+        config = ImmutableJiraActionsIndexBuilderConfig
+                .copyOf(JiraFixtures.config(JiraFixtures.customFields(), new File(directory, "jira").getPath()))
+                .withJiraBaseURL(server.getBaseUrl());
+    }
+
+    @Setup(Level.Iteration)
+    public void scheduleUpdate() {
+        // The search count keeps growing across iterations, so this is "a little way into the next run"
+        server.moveToFrontAfterSearch(server.getSearches() + 3, "ABC-" + issues / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        server.close();
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public void run() throws Exception {
+        new JiraActionsIndexBuilder(config).run();
+    }
+}
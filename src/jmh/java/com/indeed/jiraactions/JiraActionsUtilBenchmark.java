@@ -0,0 +1,59 @@
+package com.indeed.jiraactions;
+
+import org.joda.time.DateTime;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading 1000 Jira timestamps, the way every history and comment in a response is, against the general parser.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JiraActionsUtilBenchmark {
+    private static final DateTimeFormatter JIRA_FORMAT = DateTimeFormat.forPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZ")
+            .withZone(JiraActionsUtil.RAMSES_TIME);
+
+    private String[] timestamps;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(42);
+        final long start = new DateTime(2018, 1, 1, 0, 0, JiraActionsUtil.RAMSES_TIME).getMillis();
+        timestamps = new String[1000];
+        for (int i = 0; i < timestamps.length; i++) {
+            timestamps[i] = JIRA_FORMAT.print(start + (long) (random.nextDouble() * TimeUnit.DAYS.toMillis(365)));
+        }
+    }
+
+    @Benchmark
+    public void parseMillis(final Blackhole blackhole) {
+        for (final String timestamp : timestamps) {
+            blackhole.consume(JiraActionsUtil.parseMillis(timestamp));
+        }
+    }
+
+    @Benchmark
+    public void parseDateTime(final Blackhole blackhole) {
+        for (final String timestamp : timestamps) {
+            blackhole.consume(JiraActionsUtil.parseDateTime(timestamp));
+        }
+    }
+}
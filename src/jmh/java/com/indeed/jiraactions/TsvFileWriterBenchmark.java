@@ -0,0 +1,89 @@
+package com.indeed.jiraactions;
+
+import com.indeed.jiraactions.api.HttpTransport;
+import com.indeed.jiraactions.api.customfields.CustomFieldApiParser;
+import com.indeed.jiraactions.api.customfields.CustomFieldDefinition;
+import com.indeed.jiraactions.api.response.issue.Issue;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing the ~200 actions of one busy issue, spread across a week of daily TSVs, to disk, on one thread or split by
+ * day across several. Files are recreated every iteration so they don't grow without bound.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TsvFileWriterBenchmark {
+    @Param({"1", "4"})
+    public int writerThreads;
+
+    private File directory;
+    private JiraActionsIndexBuilderConfig config;
+    private HttpTransport httpTransport;
+    private List<Action> actions;
+    private TsvFileWriter writer;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("tsv-benchmark").toFile();
+        final CustomFieldDefinition[] customFields = JiraFixtures.customFields();
+        config = ImmutableJiraActionsIndexBuilderConfig
+                .copyOf(JiraFixtures.config(customFields, new File(directory, "jira").getPath()))
+                .withWriterThreads(writerThreads);
+        httpTransport = new HttpTransport(config);
+
+        final UserLookupService userLookupService = new FriendlyUserLookupService();
+        final ActionFactory actionFactory = new ActionFactory(userLookupService,
+                new CustomFieldApiParser(userLookupService), config);
+        final Issue issue = JiraFixtures.parse(JiraFixtures.issue(new Random(42), "ABC-1", 100, 100));
+        actions = new ActionsBuilder(actionFactory, issue, JiraFixtures.START,
+                JiraFixtures.START.plusDays(JiraFixtures.DAYS + 1)).buildActions();
+    }
+
+    @Setup(Level.Iteration)
+    public void createFiles() throws IOException {
+        writer = new TsvFileWriter(config, httpTransport, Arrays.asList(JiraFixtures.linkTypes()));
+        writer.createFileAndWriteHeaders();
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeFiles() throws IOException {
+        writer.uploadTsvFile(); // Only closes the files, since there's no upload URL
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        httpTransport.close();
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public void writeActions() throws IOException {
+        writer.writeActions(actions);
+        writer.sync();
+    }
+}
@@ -0,0 +1,126 @@
+package com.indeed.jiraactions;
+
+import com.google.common.collect.ImmutableList;
+import com.indeed.jiraactions.api.customfields.CustomFieldDefinition;
+import com.indeed.jiraactions.api.links.ImmutableLink;
+import com.indeed.jiraactions.api.response.issue.ImmutableUser;
+import com.indeed.jiraactions.api.response.issue.User;
+import org.joda.time.DateTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Rows per second for the TSV encoding in {@link TsvFileWriter#writeActions(List)}, compared against the
+ * stream-and-replace pipeline it replaced.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TsvRowEncoderBenchmark {
+    private List<TSVColumnSpec> columnSpecs;
+    private TsvRowEncoder rowEncoder;
+    private Action action;
+    private final Writer sink = new NullWriter();
+
+    @Setup
+    public void setup() {
+        final List<String> linkTypes = ImmutableList.of("blocks", "is blocked by", "relates to", "duplicates");
+        columnSpecs = TsvFileWriter.createColumnSpecs(linkTypes, new CustomFieldDefinition[0]);
+        rowEncoder = new TsvRowEncoder(columnSpecs);
+
+        final User user = ImmutableUser.builder()
+                .displayName("John Doe")
+                .name("johndoe")
+                .key("johndoe")
+                .addGroups("itsystems", "engineering", "jira-users", "product-managers")
+                .build();
+        action = ImmutableAction.builder()
+                .action("update")
+                .actor(user)
+                .assignee(user)
+                .reporter(user)
+                .fieldschanged("status resolution")
+                .issueage(86400)
+                .issuekey("ABC-1234")
+                .issuetype("Bug")
+                .project("Alphabet Soup")
+                .projectkey("ABC")
+                .prevstatus("In Progress")
+                .resolution("Fixed")
+                .status("Closed")
+                .summary("Row encoding\tshows up in\r\nprofiles after parsing")
+                .timeinstate(3600)
+                .timesinceaction(60)
+                .timestamp(new DateTime(2018, 4, 1, 12, 0))
+                .category("Engineering")
+                .fixversions("1.2.3|1.2.4")
+                .dueDate("2018-04-15")
+                .components("Builder|TSV")
+                .labels("performance tsv")
+                .createdDate("2018-03-01")
+                .priority("Major")
+                .addLinks(ImmutableLink.builder().targetKey("ABC-1").description("blocks").build())
+                .addLinks(ImmutableLink.builder().targetKey("ABC-2").description("relates to").build())
+                .build();
+    }
+
+    @Benchmark
+    public void rowEncoder() throws IOException {
+        rowEncoder.write(action, sink);
+    }
+
+    @Benchmark
+    public void streamPipeline() throws IOException {
+        final String line = columnSpecs.stream()
+                .map(columnSpec -> columnSpec.getActionExtractor().apply(action))
+                .map(rawValue -> rawValue.replace("\t", "\\t"))
+                .map(rawValue -> rawValue.replace("\n", "\\n"))
+                .map(rawValue -> rawValue.replace("\r", "\\r"))
+                .collect(Collectors.joining("\t"));
+        sink.write(line);
+    }
+
+    /** Keeps the written characters from being optimized away without paying for real I/O. */
+    private static class NullWriter extends Writer {
+        private int checksum;
+
+        @Override
+        public void write(final char[] buffer, final int offset, final int length) {
+            for (int i = offset; i < offset + length; i++) {
+                checksum += buffer[i];
+            }
+        }
+
+        @Override
+        public void write(final String string) {
+            for (int i = 0; i < string.length(); i++) {
+                checksum += string.charAt(i);
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
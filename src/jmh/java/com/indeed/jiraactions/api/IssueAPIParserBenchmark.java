@@ -0,0 +1,45 @@
+package com.indeed.jiraactions.api;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.indeed.jiraactions.JiraFixtures;
+import com.indeed.jiraactions.api.response.issue.Issue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binding one issue's JSON tree, changelog and comments included, into an {@link Issue}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IssueAPIParserBenchmark {
+    @Param({"10", "100", "1000"})
+    public int events;
+
+    private ObjectNode issueNode;
+
+    @Setup
+    public void setup() {
+        issueNode = JiraFixtures.issue(new Random(42), "ABC-1", events, events);
+    }
+
+    @Benchmark
+    public Issue getObject() {
+        return IssueAPIParser.getObject(issueNode);
+    }
+}
@@ -0,0 +1,91 @@
+package com.indeed.jiraactions.api.customfields;
+
+import com.google.common.collect.ObjectArrays;
+import com.indeed.jiraactions.Action;
+import com.indeed.jiraactions.ActionFactory;
+import com.indeed.jiraactions.ActionsBuilder;
+import com.indeed.jiraactions.FriendlyUserLookupService;
+import com.indeed.jiraactions.JiraFixtures;
+import com.indeed.jiraactions.UserLookupService;
+import com.indeed.jiraactions.api.response.issue.Issue;
+import com.indeed.jiraactions.api.response.issue.changelog.histories.History;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carrying every custom field forward across 100 histories, about half of which touch one of them. {@code copies}
+ * repeats the example custom fields under other names, each also answering to the original's, to see what a large
+ * configuration costs per value.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomFieldApiParserBenchmark {
+    private static final int HISTORIES = 100;
+
+    @Param({"1", "15"})
+    public int copies;
+
+    private CustomFieldDefinition[] customFields;
+    private CustomFieldApiParser customFieldApiParser;
+    private History[] histories;
+    private Action[] prevActions;
+
+    @Setup
+    public void setup() throws IOException {
+        customFields = copies(JiraFixtures.customFields(), copies);
+        final UserLookupService userLookupService = new FriendlyUserLookupService();
+        customFieldApiParser = new CustomFieldApiParser(userLookupService);
+        final ActionFactory actionFactory = new ActionFactory(userLookupService, customFieldApiParser,
+                JiraFixtures.config(customFields, "jira"));
+
+        final Issue issue = JiraFixtures.parse(JiraFixtures.issue(new Random(42), "ABC-1", HISTORIES, 0));
+        final List<Action> actions = new ActionsBuilder(actionFactory, issue, JiraFixtures.START,
+                JiraFixtures.START.plusDays(JiraFixtures.DAYS + 1)).buildActions();
+        histories = issue.changelog.histories;
+        prevActions = actions.subList(0, HISTORIES).toArray(new Action[0]);
+    }
+
+    private static CustomFieldDefinition[] copies(final CustomFieldDefinition[] originals, final int copies) {
+        final CustomFieldDefinition[] definitions = new CustomFieldDefinition[originals.length * copies];
+        for (int copy = 0; copy < copies; copy++) {
+            for (int i = 0; i < originals.length; i++) {
+                final CustomFieldDefinition original = originals[i];
+                final int ordinal = copy * originals.length + i;
+                definitions[ordinal] = copy == 0 ? original : ImmutableCustomFieldDefinition.copyOf(original)
+                        .withName(original.getName() + " " + copy)
+                        .withAlternateNames(ObjectArrays.concat(original.getAlternateNames(), original.getName()))
+                        .withImhotepFieldName(original.getImhotepFieldName() + copy)
+                        .withOrdinal(ordinal);
+            }
+        }
+        return definitions;
+    }
+
+    @Benchmark
+    public void parseNonInitialValue(final Blackhole blackhole) {
+        for (int i = 0; i < histories.length; i++) {
+            for (final CustomFieldDefinition definition : customFields) {
+                blackhole.consume(customFieldApiParser.parseNonInitialValue(definition, prevActions[i], histories[i]));
+            }
+        }
+    }
+}
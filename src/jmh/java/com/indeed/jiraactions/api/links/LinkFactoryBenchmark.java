@@ -0,0 +1,63 @@
+package com.indeed.jiraactions.api.links;
+
+import com.google.common.collect.ImmutableList;
+import com.indeed.jiraactions.api.response.issue.changelog.histories.Item;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merging a history into an issue's links, both for the common history that doesn't touch links and for one that
+ * removes a link and adds another.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LinkFactoryBenchmark {
+    @Param({"0", "10", "100"})
+    public int links;
+
+    private final LinkFactory linkFactory = new LinkFactory();
+    private Set<Link> source;
+    private List<Item> changes;
+
+    @Setup
+    public void setup() {
+        source = new HashSet<>();
+        for (int i = 0; i < links; i++) {
+            source.add(ImmutableLink.builder().targetKey("ABC-" + i).description("relates to").build());
+        }
+
+        final Item item = new Item();
+        item.setField("Link");
+        item.fromString = "This issue relates to ABC-0";
+        item.toString = "This issue blocks XYZ-1";
+        changes = ImmutableList.of(item);
+    }
+
+    @Benchmark
+    public Set<Link> mergeNoChanges() {
+        return linkFactory.mergeLinks(source, ImmutableList.of());
+    }
+
+    @Benchmark
+    public Set<Link> mergeChanges() {
+        return linkFactory.mergeLinks(source, changes);
+    }
+}
@@ -32,6 +32,11 @@ public interface Action {
     long getTimeinstate();
     long getTimesinceaction();
     DateTime getTimestamp();
+
+    /** {@link #getTimestamp()} in epoch millis, for everything but writing it out. */
+    default long getTimestampMillis() {
+        return getTimestamp().getMillis();
+    }
     String getCategory();
     String getFixversions();
     String getDueDate();
@@ -54,6 +59,11 @@ public interface Action {
 
     @Value.Derived
     default boolean isInRange(final DateTime start, final DateTime end) {
-        return start.compareTo(getTimestamp()) <= 0 && end.compareTo(getTimestamp()) > 0;
+        return isInRange(start.getMillis(), end.getMillis());
+    }
+
+    default boolean isInRange(final long startMillis, final long endMillis) {
+        final long millis = getTimestampMillis();
+        return startMillis <= millis && endMillis > millis;
     }
 }
@@ -1,23 +1,33 @@
 package com.indeed.jiraactions;
 
+import com.google.common.base.Strings;
 import com.indeed.jiraactions.api.customfields.CustomFieldApiParser;
 import com.indeed.jiraactions.api.customfields.CustomFieldDefinition;
+import com.indeed.jiraactions.api.customfields.CustomFieldValue;
+import com.indeed.jiraactions.api.customfields.CustomFieldValues;
 import com.indeed.jiraactions.api.links.LinkFactory;
 import com.indeed.jiraactions.api.response.issue.Issue;
 import com.indeed.jiraactions.api.response.issue.User;
 import com.indeed.jiraactions.api.response.issue.changelog.histories.History;
+import com.indeed.jiraactions.api.response.issue.changelog.histories.Item;
 import com.indeed.jiraactions.api.response.issue.fields.comment.Comment;
-import org.joda.time.DateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Objects;
+import java.util.Set;
 
 public class ActionFactory {
+    private static final Logger log = LoggerFactory.getLogger(ActionFactory.class);
 
     private final UserLookupService userLookupService;
     private final CustomFieldApiParser customFieldParser;
-    private final JiraActionsIndexBuilderConfig config;
+    /** The config copies these on every call, and {@link CustomFieldValues} only copies quickly for the same array. */
+    private final CustomFieldDefinition[] customFields;
     private final LinkFactory linkFactory = new LinkFactory();
 
     @SuppressWarnings("WeakerAccess")
@@ -26,118 +36,183 @@ public class ActionFactory {
                          final JiraActionsIndexBuilderConfig config) {
         this.userLookupService = userLookupService;
         this.customFieldParser = customFieldApiParser;
-        this.config = config;
+        this.customFields = config.getCustomFields();
     }
 
-    public Action create(final Issue issue) throws IOException {
-        final User assignee = userLookupService.getUser(issue.initialValueKey("assignee", "assigneekey"));
-        final User reporter = userLookupService.getUser(issue.initialValueKey("reporter", "reporterkey"));
-        final ImmutableAction.Builder builder = ImmutableAction.builder()
-                .action("create")
-                .actor(issue.fields.creator == null ? User.INVALID_USER : issue.fields.creator)
-                .assignee(assignee)
-                .fieldschanged("created")
-                .issueage(0)
-                .issuekey(issue.key)
-                .issuetype(issue.initialValue("issuetype"))
-                .priority(issue.initialValue("priority"))
-                .project(issue.initialValue("project"))
-                .projectkey(issue.initialValue("projectkey"))
-                .prevstatus("")
-                .reporter(reporter)
-                .resolution(issue.initialValue("resolution"))
-                .status(issue.initialValue("status"))
-                .summary(issue.initialValue("summary"))
-                .timeinstate(0)
-                .timesinceaction(0)
-                .timestamp(issue.fields.created)
-                .category(issue.initialValue("category"))
-                .fixversions(issue.initialValue("fixversions"))
-                .dueDate(issue.initialValue("duedate"))
-                .components(issue.initialValue("components"))
-                .labels(issue.initialValue("labels"))
-                .createdDate(issue.fields.created.toString("yyyy-MM-dd"))
-                .links(Collections.emptySet());
-
-            for(final CustomFieldDefinition customFieldDefinition : config.getCustomFields()) {
-                builder.putCustomFieldValues(customFieldDefinition, customFieldParser.parseInitialValue(customFieldDefinition, issue));
+    /**
+     * Resolves the users for a page of issues up front. An issue we can't collect keys for just has its users
+     * looked up one at a time later.
+     */
+    public void prefetchUsers(final Collection<Issue> issues) {
+        final Set<String> keys = new HashSet<>();
+        for (final Issue issue : issues) {
+            try {
+                keys.addAll(getUserKeys(issue));
+            } catch (final IOException | RuntimeException e) {
+                log.warn("Unable to collect users for issue {}.", issue.key, e);
             }
+        }
+        userLookupService.prefetch(keys);
+    }
 
-        return builder.build();
+    /**
+     * Every user key that {@link #create} and {@link #update} may look up for this issue, so a whole page of them
+     * can be resolved before any actions are built.
+     */
+    public Set<String> getUserKeys(final Issue issue) throws IOException {
+        final Set<String> keys = new HashSet<>();
+        keys.add(issue.initialValueKey("assignee", "assigneekey"));
+        keys.add(issue.initialValueKey("reporter", "reporterkey"));
+        for (final History history : issue.changelog.histories) {
+            for (final Item item : history.items) {
+                if (!item.customField && ("assignee".equals(item.field) || "reporter".equals(item.field))) {
+                    keys.add(item.to);
+                }
+            }
+        }
+        for (final CustomFieldDefinition customFieldDefinition : customFields) {
+            customFieldParser.collectUserKeys(customFieldDefinition, issue, keys);
+        }
+        keys.remove(null);
+        keys.remove("");
+        return keys;
     }
 
-    public Action update(final Action prevAction, final History history) {
-        final User assignee = history.itemExist("assignee")
-                ? userLookupService.getUser(history.getItemLastValueKey("assignee"))
-                : prevAction.getAssignee();
-        final User reporter = history.itemExist("reporter")
-                ? userLookupService.getUser(history.getItemLastValueKey("reporter"))
-                : prevAction.getReporter();
-        final ImmutableAction.Builder builder = ImmutableAction.builder()
-                .action("update")
-                .actor(history.author == null ? User.INVALID_USER: history.author)
-                .assignee(assignee)
-                .fieldschanged(history.getChangedFields())
-                .issueage(prevAction.getIssueage() + getTimeDiff(prevAction.getTimestamp(), history.created))
-                .issuekey(prevAction.getIssuekey())
-                .issuetype(history.itemExist("issuetype") ? history.getItemLastValue("issuetype") : prevAction.getIssuetype())
-                .priority(history.itemExist("priority") ? history.getItemLastValue("priority") : prevAction.getPriority())
-                .project(history.itemExist("project") ? history.getItemLastValue("project") : prevAction.getProject())
-                .projectkey(history.itemExist("projectkey") ? history.getItemLastValue("projectkey") : prevAction.getProjectkey())
-                .prevstatus(prevAction.getStatus())
-                .reporter(reporter)
-                .resolution(history.itemExist("resolution") ? history.getItemLastValue("resolution") : prevAction.getResolution())
-                .status(history.itemExist("status") ? history.getItemLastValue("status") : prevAction.getStatus())
-                .summary(history.itemExist("summary") ? history.getItemLastValue("summary") : prevAction.getSummary())
-                .timeinstate(timeInState(prevAction, history))
-                .timesinceaction(getTimeDiff(prevAction.getTimestamp(), history.created))
-                .timestamp(history.created)
-                .category(history.itemExist("category") ? history.getItemLastValue("category") : prevAction.getCategory())
-                .fixversions(history.itemExist("fixversions") ? history.getItemLastValue("fixversions") : prevAction.getFixversions())
-                .dueDate(history.itemExist("duedate") ? history.getItemLastValue("duedate").replace(" 00:00:00.0", "") : prevAction.getDueDate())
-                .components(history.itemExist("components") ? history.getItemLastValue("components") : prevAction.getComponents())
-                .labels(history.itemExist("labels") ? history.getItemLastValue("labels") : prevAction.getLabels())
-                .createdDate(prevAction.getCreatedDate())
-                .links(linkFactory.mergeLinks(prevAction.getLinks(), history.getAllItems("link")));
-
-        for(final CustomFieldDefinition customFieldDefinition : config.getCustomFields()) {
-            builder.putCustomFieldValues(customFieldDefinition, customFieldParser.parseNonInitialValue(customFieldDefinition, prevAction, history));
+    public Action create(final Issue issue) throws IOException {
+        return createState(issue).toAction();
+    }
+
+    /** The issue as it was created, to move forward with {@link #update} and {@link #comment}. */
+    MutableAction createState(final Issue issue) throws IOException {
+        final MutableAction action = new MutableAction();
+        action.action = "create";
+        action.actor = issue.fields.creator == null ? User.INVALID_USER : issue.fields.creator;
+        action.assignee = userLookupService.getUser(issue.initialValueKey("assignee", "assigneekey"));
+        action.fieldschanged = "created";
+        action.issueage = 0;
+        action.issuekey = issue.key;
+        action.issuetype = issue.initialValue("issuetype");
+        action.priority = issue.initialValue("priority");
+        action.project = issue.initialValue("project");
+        action.projectkey = issue.initialValue("projectkey");
+        action.prevstatus = "";
+        action.reporter = userLookupService.getUser(issue.initialValueKey("reporter", "reporterkey"));
+        action.resolution = issue.initialValue("resolution");
+        action.status = issue.initialValue("status");
+        action.summary = issue.initialValue("summary");
+        action.timeinstate = 0;
+        action.timesinceaction = 0;
+        action.timestamp = issue.fields.created.getMillis();
+        action.category = issue.initialValue("category");
+        action.fixversions = issue.initialValue("fixversions");
+        action.dueDate = issue.initialValue("duedate");
+        action.components = issue.initialValue("components");
+        action.labels = issue.initialValue("labels");
+        action.createdDate = issue.fields.created.toString("yyyy-MM-dd");
+        action.links = Collections.emptySet();
+
+        final CustomFieldValues.Builder customFieldValues = CustomFieldValues.builder(customFields);
+        for(final CustomFieldDefinition customFieldDefinition : customFields) {
+            customFieldValues.put(customFieldDefinition, customFieldParser.parseInitialValue(customFieldDefinition, issue));
         }
+        action.customFieldValues = customFieldValues.build();
+        return action;
+    }
 
-        return builder.build();
+    public Action update(final Action prevAction, final History history) {
+        final MutableAction action = MutableAction.copyOf(prevAction);
+        update(action, history);
+        return action.toAction();
+    }
+
+    /** Moves {@code action} on to {@code history}, in place. */
+    void update(final MutableAction action, final History history) {
+        final long timeSinceAction = getTimeDiff(action.timestamp, history.created);
+        final long timeInState = timeInState(action, history.created);
+
+        final Item assignee = history.getItem("assignee", false);
+        if (assignee != null) {
+            action.assignee = userLookupService.getUser(Strings.nullToEmpty(assignee.to));
+        }
+        final Item reporter = history.getItem("reporter", false);
+        if (reporter != null) {
+            action.reporter = userLookupService.getUser(Strings.nullToEmpty(reporter.to));
+        }
+        action.action = "update";
+        action.actor = history.author == null ? User.INVALID_USER: history.author;
+        action.fieldschanged = history.getChangedFields();
+        action.issueage += timeSinceAction;
+        action.issuetype = lastValue(history, "issuetype", action.issuetype);
+        action.priority = lastValue(history, "priority", action.priority);
+        action.project = lastValue(history, "project", action.project);
+        action.projectkey = lastValue(history, "projectkey", action.projectkey);
+        action.prevstatus = action.status;
+        action.resolution = lastValue(history, "resolution", action.resolution);
+        action.status = lastValue(history, "status", action.status);
+        action.summary = lastValue(history, "summary", action.summary);
+        action.timeinstate = timeInState;
+        action.timesinceaction = timeSinceAction;
+        action.timestamp = history.created;
+        action.category = lastValue(history, "category", action.category);
+        action.fixversions = lastValue(history, "fixversions", action.fixversions);
+        final Item dueDate = history.getItem("duedate", false);
+        if (dueDate != null) {
+            action.dueDate = Strings.nullToEmpty(dueDate.toString).replace(" 00:00:00.0", "");
+        }
+        action.components = lastValue(history, "components", action.components);
+        action.labels = lastValue(history, "labels", action.labels);
+        action.links = linkFactory.mergeLinks(action.links, history.getAllItems("link"));
+
+        // Most histories leave most fields alone, so only copy the values if one of them changed
+        CustomFieldValues.Builder changedValues = null;
+        for(final CustomFieldDefinition customFieldDefinition : customFields) {
+            final CustomFieldValue value = customFieldParser.parseNonInitialValue(customFieldDefinition, action, history);
+            if (value != action.customFieldValues.get(customFieldDefinition)) {
+                if (changedValues == null) {
+                    changedValues = CustomFieldValues.builder(customFields).from(action.customFieldValues);
+                }
+                changedValues.put(customFieldDefinition, value);
+            }
+        }
+        if (changedValues != null) {
+            action.customFieldValues = changedValues.build();
+        }
     }
 
     public Action comment(final Action prevAction, final Comment comment) {
-        return ImmutableAction.builder()
-                .from(prevAction)
-                .action("comment")
-                .actor(comment.author == null ? User.INVALID_USER : comment.author)
-                .fieldschanged("comment")
-                .issueage(prevAction.getIssueage() + getTimeDiff(prevAction.getTimestamp(), comment.created))
-                .timeinstate(timeInState(prevAction, comment))
-                .timesinceaction(getTimeDiff(prevAction.getTimestamp(), comment.created))
-                .timestamp(comment.created)
-                .build();
+        final MutableAction action = MutableAction.copyOf(prevAction);
+        comment(action, comment);
+        return action.toAction();
     }
 
-    private long timeInState(final Action prevAction, final Comment comment) {
-        return timeInState(prevAction, comment.created);
+    /** Moves {@code action} on to {@code comment}, in place. */
+    void comment(final MutableAction action, final Comment comment) {
+        final long timeSinceAction = getTimeDiff(action.timestamp, comment.created);
+        action.timeinstate = timeInState(action, comment.created);
+        action.action = "comment";
+        action.actor = comment.author == null ? User.INVALID_USER : comment.author;
+        action.fieldschanged = "comment";
+        action.issueage += timeSinceAction;
+        action.timesinceaction = timeSinceAction;
+        action.timestamp = comment.created;
     }
 
-    private long timeInState(final Action prevAction, final History history) {
-        return timeInState(prevAction, history.created);
+    /** The value {@code history} changes {@code field} to, or {@code prevValue} if it doesn't. */
+    private static String lastValue(final History history, final String field, final String prevValue) {
+        final Item item = history.getItem(field, false);
+        return item == null ? prevValue : Strings.nullToEmpty(item.toString);
     }
 
-    private long timeInState(final Action prevAction, final DateTime changeTimestamp) {
+    private long timeInState(final Action prevAction, final long changeTimestamp) {
         if(!Objects.equals(prevAction.getPrevstatus(), prevAction.getStatus())) {
-            return getTimeDiff(prevAction.getTimestamp(), changeTimestamp);
+            return getTimeDiff(prevAction.getTimestampMillis(), changeTimestamp);
         }
 
-        return getTimeDiff(prevAction.getTimestamp(), changeTimestamp) + prevAction.getTimeinstate();
+        return getTimeDiff(prevAction.getTimestampMillis(), changeTimestamp) + prevAction.getTimeinstate();
     }
 
-    private long getTimeDiff(final DateTime before, final DateTime after) {
-        return (after.getMillis() - before.getMillis()) / 1000;
+    private long getTimeDiff(final long before, final long after) {
+        return (after - before) / 1000;
     }
 
 }
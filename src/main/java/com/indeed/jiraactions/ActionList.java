@@ -0,0 +1,102 @@
+package com.indeed.jiraactions;
+
+import org.joda.time.DateTime;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.Collectors;
+
+/**
+ * An issue's actions in timestamp order, with their timestamps alongside as epoch millis. That way finding the
+ * actions after some time, or within a date range, is a binary search, and the result is a view of the same list
+ * rather than a copy.
+ *
+ * Actions are expected in timestamp order, as {@link ActionsBuilder} makes them. If they aren't, this falls back
+ * to filtering them one by one, so the results are the same either way.
+ */
+public final class ActionList extends AbstractList<Action> implements RandomAccess {
+    private final List<Action> actions;
+    private final long[] millis;
+    private final int from;
+    private final int to;
+    private final boolean sorted;
+
+    private ActionList(final List<Action> actions, final long[] millis, final int from, final int to,
+                       final boolean sorted) {
+        this.actions = actions;
+        this.millis = millis;
+        this.from = from;
+        this.to = to;
+        this.sorted = sorted;
+    }
+
+    public static ActionList of(final List<Action> actions) {
+        if (actions instanceof ActionList) {
+            return (ActionList) actions;
+        }
+
+        final long[] millis = new long[actions.size()];
+        boolean sorted = true;
+        for (int i = 0; i < millis.length; i++) {
+            millis[i] = actions.get(i).getTimestampMillis();
+            sorted &= i == 0 || millis[i - 1] <= millis[i];
+        }
+        return new ActionList(actions, millis, 0, millis.length, sorted);
+    }
+
+    @Override
+    public Action get(final int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        return actions.get(from + index);
+    }
+
+    @Override
+    public int size() {
+        return to - from;
+    }
+
+    /** Timestamp of the last action, in millis. */
+    public long getLastMillis() {
+        return millis[to - 1];
+    }
+
+    /** The actions strictly after {@code exclusiveMillis}. */
+    public ActionList after(final long exclusiveMillis) {
+        if (!sorted) {
+            return of(stream()
+                    .filter(a -> a.getTimestampMillis() > exclusiveMillis)
+                    .collect(Collectors.toList()));
+        }
+        return new ActionList(actions, millis, firstAfter(exclusiveMillis), to, true);
+    }
+
+    /** The actions {@link Action#isInRange in range}: at or after {@code start}, and before {@code end}. */
+    public ActionList inRange(final DateTime start, final DateTime end) {
+        if (!sorted) {
+            return of(stream()
+                    .filter(a -> a.isInRange(start, end))
+                    .collect(Collectors.toList()));
+        }
+        final int rangeFrom = firstAfter(start.getMillis() - 1);
+        final int rangeTo = Math.max(firstAfter(end.getMillis() - 1), rangeFrom);
+        return new ActionList(actions, millis, rangeFrom, rangeTo, true);
+    }
+
+    /** Index of the first action after {@code exclusiveMillis}, or {@link #to} if there isn't one. */
+    private int firstAfter(final long exclusiveMillis) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (millis[mid] <= exclusiveMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
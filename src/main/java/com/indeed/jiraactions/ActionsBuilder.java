@@ -16,25 +16,106 @@ public class ActionsBuilder {
     private static final Logger LOG = LoggerFactory.getLogger(ActionsBuilder.class);
 
     private final Issue issue;
-    private final DateTime startDate;
-    private final DateTime endDate;
+    private final long startMillis;
+    private final long endMillis;
     private final List<Action> actions;
     private final ActionFactory actionFactory;
 
     public ActionsBuilder(final ActionFactory actionFactory, final Issue issue, final DateTime startDate, final DateTime endDate) {
         this.actionFactory = actionFactory;
         this.issue = issue;
-        this.startDate = startDate;
-        this.endDate = endDate;
+        this.startMillis = startDate.getMillis();
+        this.endMillis = endDate.getMillis();
 
-        actions = new ArrayList<>(issue.changelog.histories.length + issue.fields.comment.comments.length);
+        actions = new ArrayList<>(1 + issue.changelog.histories.length + issue.fields.comment.comments.length);
     }
 
     @Nonnull
     public List<Action> buildActions() throws IOException {
+        return build(true);
+    }
+
+    /**
+     * Like {@link #buildActions()}, but only the actions between the start and end date, plus the issue's last action
+     * wherever it is, which is all the {@link Paginator} needs to tell whether it has seen the issue before. The
+     * issue's state is carried forward in place through everything else, rather than building an action for each.
+     */
+    @Nonnull
+    public List<Action> buildActionsInRange() throws IOException {
+        return build(false);
+    }
+
+    /**
+     * Histories and comments are each sorted, so we merge them in one pass, each comment following the latest history
+     * or comment at or before it.
+     */
+    private List<Action> build(final boolean everything) throws IOException {
+        issue.changelog.sortHistories();
+        issue.fields.comment.sortComments();
+        final History[] histories = issue.changelog.histories;
+        final long created = issue.fields.created.getMillis();
+        if (histories.length > 0 && histories[0].created < created) {
+            return buildOutOfOrder(everything);
+        }
+
+        final MutableAction state = actionFactory.createState(issue);
+        addIfKept(state, everything);
+        final Comment[] comments = issue.fields.comment.comments;
+        int commentIndex = 0;
+        for (; commentIndex < comments.length && comments[commentIndex].created < created; commentIndex++) {
+            LOG.debug("Skipping comment {} on {} because it's before the issue was created.",
+                    comments[commentIndex].id, issue.key);
+        }
+
+        MutableAction last = state;
+        for (int historyIndex = 0; historyIndex <= histories.length; historyIndex++) {
+            final History history = historyIndex < histories.length ? histories[historyIndex] : null;
+            MutableAction commentState = null;
+            for (; commentIndex < comments.length
+                    && (history == null || comments[commentIndex].created < history.created); commentIndex++) {
+                if (commentState == null) {
+                    commentState = MutableAction.copyOf(state);
+                }
+                actionFactory.comment(commentState, comments[commentIndex]);
+                addIfKept(commentState, everything);
+                last = commentState;
+            }
+
+            if (history != null) {
+                actionFactory.update(state, history);
+                addIfKept(state, everything);
+                last = state;
+            }
+        }
+
+        if (!everything && !last.isInRange(startMillis, endMillis)) {
+            actions.add(last.toAction());
+        }
+        return actions;
+    }
+
+    private void addIfKept(final MutableAction state, final boolean everything) {
+        if (everything || state.isInRange(startMillis, endMillis)) {
+            actions.add(state.toAction());
+        }
+    }
+
+    /**
+     * Some issues have histories from before they were created, so the timeline isn't in timestamp order and
+     * comments can't be merged into it. For those, build the updates first and then slot each comment in after
+     * whatever it fits after.
+     */
+    private List<Action> buildOutOfOrder(final boolean everything) throws IOException {
         setCreateAction();
         setUpdateActions();
         setCommentActions();
+        if (!everything) {
+            final Action last = actions.get(actions.size() - 1);
+            actions.removeIf(action -> !action.isInRange(startMillis, endMillis));
+            if (actions.isEmpty() || actions.get(actions.size() - 1) != last) {
+                actions.add(last);
+            }
+        }
         return actions;
     }
 
@@ -82,7 +163,7 @@ public class ActionsBuilder {
                     /* You'd think this would never happen, but it can. I found legitimate examples with a comment
                      * on a ticket *before* that ticket was created.
                      */
-                        if (comment.created.isBefore(actions.get(0).getTimestamp())) {
+                        if (comment.created < actions.get(0).getTimestampMillis()) {
                             LOG.debug("Skipping comment {} on {} because it's before the issue was created.",
                                     comment.id, issue.key);
                         } else {
@@ -97,17 +178,11 @@ public class ActionsBuilder {
         }
     }
 
-    private boolean isCreatedDuringRange(final DateTime createdDate) {
-        return startDate.compareTo(createdDate) <= 0 && endDate.compareTo(createdDate) > 0;
-    }
-
     private boolean commentIsAfter(final Comment comment, final Action action) {
         /* return true if comment is made after the action. Or if it's the same instant as the action, because some
          * automated tools are that fast (or because of a comment made at the same time you do an edit.
          */
-        final DateTime commentDate = comment.created;
-        final DateTime actionDate = action.getTimestamp();
-        return commentDate.isAfter(actionDate) || commentDate.isEqual(actionDate);
+        return comment.created >= action.getTimestampMillis();
     }
 
     private boolean commentIsRightAfter(final Comment comment, final int actionIndex) {
@@ -1,8 +1,6 @@
 package com.indeed.jiraactions;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.base.Stopwatch;
-import com.indeed.jiraactions.api.IssueAPIParser;
 import com.indeed.jiraactions.api.IssuesAPICaller;
 import com.indeed.jiraactions.api.customfields.CustomFieldDefinition;
 import com.indeed.jiraactions.api.response.issue.Issue;
@@ -10,16 +8,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.joda.time.DateTime;
 
-import javax.annotation.Nullable;
 import java.io.IOException;
-import java.util.HashSet;
-import java.util.Iterator;
+import java.io.UnsupportedEncodingException;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.StreamSupport;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class ApiPageProvider implements PageProvider {
     private static final Logger log = LoggerFactory.getLogger(ApiPageProvider.class);
@@ -36,7 +32,7 @@ public class ApiPageProvider implements PageProvider {
     private final Set<CustomFieldDefinition> customFieldsSeen;
 
     private long apiTime = 0;
-    private long processTime = 0;
+    private final AtomicLong processTime = new AtomicLong();
     private long fileTime = 0;
 
     public ApiPageProvider(final IssuesAPICaller issuesAPICaller, final ActionFactory actionFactory,
@@ -48,15 +44,18 @@ public class ApiPageProvider implements PageProvider {
 
         this.startDate = JiraActionsUtil.parseDateTime(config.getStartDate());
         this.endDate = JiraActionsUtil.parseDateTime(config.getEndDate());
-        this.customFieldsSeen = new HashSet<>(config.getCustomFields().length);
+        this.customFieldsSeen = ConcurrentHashMap.newKeySet(config.getCustomFields().length);
     }
 
     public long getApiTime() {
         return apiTime;
     }
 
+    /**
+     * Summed over every thread building actions, so with several of them this can exceed the wall time.
+     */
     public long getProcessingTime() {
-        return processTime;
+        return processTime.get();
     }
 
     public long getFileWritingTime() {
@@ -73,52 +72,40 @@ public class ApiPageProvider implements PageProvider {
     }
 
     @Override
-    public JsonNode getRawPage() throws InterruptedException {
+    public Iterable<Issue> getPage() throws InterruptedException {
         final Stopwatch stopwatch = Stopwatch.createStarted();
-        final JsonNode issuesNode = issuesAPICaller.getIssuesNodeWithBackoff();
+        final List<Issue> issues = issuesAPICaller.getIssuesWithBackoff();
+        actionFactory.prefetchUsers(issues);
         stopwatch.stop();
 
         apiTime += stopwatch.elapsed(TimeUnit.MILLISECONDS);
         log.trace("{} ms for an API call.", stopwatch.elapsed(TimeUnit.MILLISECONDS));
 
-        return issuesNode;
-    }
-
-    @Override
-    public Iterable<Issue> getPage() throws InterruptedException {
-        final JsonNode rawPage = getRawPage();
-        final Iterator<Issue> iterator = StreamSupport.stream(rawPage.spliterator(), false)
-                .map(this::processNode)
-                .filter(Objects::nonNull)
-                .iterator();
-        final Iterable<Issue> iterable = () -> iterator;
-        return iterable;
+        return issues;
     }
 
-    @Override
-    @Nullable
-    public Issue processNode(final JsonNode issueNode) {
+    /**
+     * A page of an incremental run, see {@link IssuesAPICaller#getIssuesUpdatedSince}.
+     */
+    public List<Issue> getIssuesUpdatedSince(final DateTime since, final int startAt, final int count)
+            throws InterruptedException, UnsupportedEncodingException {
         final Stopwatch stopwatch = Stopwatch.createStarted();
-        final Issue issue = IssueAPIParser.getObject(issueNode);
+        final List<Issue> issues = issuesAPICaller.getIssuesUpdatedSince(since, startAt, count);
+        actionFactory.prefetchUsers(issues);
         stopwatch.stop();
 
-        processTime += stopwatch.elapsed(TimeUnit.MILLISECONDS);
-
-        if (issue == null) {
-            log.error("null issue after parsing: " + issueNode.toString());
-        }
-
-        return issue;
+        apiTime += stopwatch.elapsed(TimeUnit.MILLISECONDS);
+        return issues;
     }
 
     @Override
     public List<Action> getActions(final Issue issue) throws IOException {
         final Stopwatch stopwatch = Stopwatch.createStarted();
         final ActionsBuilder actionsBuilder = new ActionsBuilder(actionFactory, issue, startDate, endDate);
-        final List<Action> actions = actionsBuilder.buildActions();
+        final List<Action> actions = actionsBuilder.buildActionsInRange();
         stopwatch.stop();
 
-        processTime += stopwatch.elapsed(TimeUnit.MILLISECONDS);
+        processTime.addAndGet(stopwatch.elapsed(TimeUnit.MILLISECONDS));
 
         actions.stream()
                 .map(action -> action.getCustomFieldValues().entrySet())
@@ -143,4 +130,14 @@ public class ApiPageProvider implements PageProvider {
     public void reset() {
         issuesAPICaller.reset();
     }
+
+    @Override
+    public int getPosition() {
+        return issuesAPICaller.getStartAt();
+    }
+
+    @Override
+    public void seek(final int position) {
+        issuesAPICaller.seek(position);
+    }
 }
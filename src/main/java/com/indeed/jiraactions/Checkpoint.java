@@ -0,0 +1,66 @@
+package com.indeed.jiraactions;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * How far a run had got, as of the end of some page: enough of the {@link Paginator}'s state to carry on from the
+ * next page, and how much of each TSV had been written by then. Anything written after it is cut off on resume,
+ * since those pages will be fetched again. Once every page is written it's saved {@link #processed}, and from then
+ * on it only records which TSVs have been uploaded.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Checkpoint {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /** Which run this is for; resuming with anything else would mix up two runs' rows. */
+    public String startDate;
+    public String endDate;
+    public String indexName;
+
+    public int pass;
+    /** Where in the search results the next page starts. */
+    public int startAt;
+    public boolean firstIssue = true;
+    /** Issue key to the time of the last action we've written for it. */
+    public Map<String, Long> seenIssues = new HashMap<>();
+    public Set<String> seenThisPass = new HashSet<>();
+
+    /** TSV file name to the number of bytes flushed to it. */
+    public Map<String, Long> fileLengths = new HashMap<>();
+    /** TSVs with at least one row, which are the ones that get uploaded. */
+    public Set<String> writtenFiles = new HashSet<>();
+
+    /** Every page was written, so a resume only has to upload what isn't in {@link #uploadedFiles}. */
+    public boolean processed;
+    /** TSVs that are uploaded, or had nothing to upload, and are deleted. */
+    public Set<String> uploadedFiles = new HashSet<>();
+
+    public static Checkpoint read(final Path file) throws IOException {
+        return objectMapper.readValue(file.toFile(), Checkpoint.class);
+    }
+
+    /**
+     * Replaces {@code file} atomically, so a run killed mid-write leaves the previous checkpoint behind.
+     */
+    public void write(final Path file) throws IOException {
+        final Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        objectMapper.writeValue(tmp.toFile(), this);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public boolean isFor(final JiraActionsIndexBuilderConfig config) {
+        return config.getStartDate().equals(startDate)
+                && config.getEndDate().equals(endDate)
+                && config.getIndexName().equals(indexName);
+    }
+}
@@ -0,0 +1,106 @@
+package com.indeed.jiraactions;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saves a {@link Checkpoint} at most once every checkpoint interval, and hands the {@link Paginator} the one a
+ * resumed run starts from. Once processing is done it saves one more, and then each TSV as it's uploaded.
+ */
+public class Checkpointer {
+    private static final Logger log = LoggerFactory.getLogger(Checkpointer.class);
+
+    private final Path file;
+    private final JiraActionsIndexBuilderConfig config;
+    private final TsvFileWriter writer;
+    private final long intervalMillis;
+    @Nullable
+    private final Checkpoint resumeFrom;
+    private long lastSaved;
+    @Nullable
+    private Checkpoint processed;
+
+    public Checkpointer(final Path file, final JiraActionsIndexBuilderConfig config, final TsvFileWriter writer,
+                        @Nullable final Checkpoint resumeFrom) throws IOException {
+        final Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.file = file;
+        this.config = config;
+        this.writer = writer;
+        this.intervalMillis = TimeUnit.SECONDS.toMillis(config.getCheckpointIntervalSeconds());
+        this.resumeFrom = resumeFrom;
+        this.lastSaved = System.currentTimeMillis();
+    }
+
+    @Nullable
+    public Checkpoint getResumeFrom() {
+        return resumeFrom;
+    }
+
+    public boolean isDue() {
+        return System.currentTimeMillis() - lastSaved >= intervalMillis;
+    }
+
+    /**
+     * Only call this between pages, once everything for the pages so far has been written.
+     */
+    public void save(final Checkpoint checkpoint) {
+        try {
+            write(checkpoint);
+            log.debug("Checkpointed pass {} at {}.", checkpoint.pass, checkpoint.startAt);
+        } catch (final IOException e) {
+            // We can keep going; a resume would just start from an older checkpoint
+            log.warn("Failed to write checkpoint to {}.", file, e);
+        }
+        lastSaved = System.currentTimeMillis();
+    }
+
+    /**
+     * Saves that every page has been written, before anything is uploaded. Unlike {@link #save} this has to work:
+     * uploaded files are deleted, and resuming from an earlier checkpoint would start them over with only the rows
+     * after it.
+     */
+    public void saveProcessed() throws IOException {
+        final Checkpoint checkpoint = new Checkpoint();
+        checkpoint.processed = true;
+        if (resumeFrom != null && resumeFrom.processed) {
+            checkpoint.uploadedFiles.addAll(resumeFrom.uploadedFiles);
+        }
+        write(checkpoint);
+        processed = checkpoint;
+        log.debug("Checkpointed the end of processing.");
+    }
+
+    /** Only after {@link #saveProcessed()}, and before the file is deleted. */
+    public void saveUploaded(final String fileName) throws IOException {
+        if (processed == null) {
+            throw new IllegalStateException("Uploading before processing was checkpointed");
+        }
+        processed.uploadedFiles.add(fileName);
+        processed.write(file);
+    }
+
+    private void write(final Checkpoint checkpoint) throws IOException {
+        checkpoint.startDate = config.getStartDate();
+        checkpoint.endDate = config.getEndDate();
+        checkpoint.indexName = config.getIndexName();
+        // The files have to hold everything up to the checkpoint, and nothing after it
+        writer.sync();
+        checkpoint.fileLengths = writer.getFileLengths();
+        checkpoint.writtenFiles = writer.getWrittenFiles();
+        checkpoint.write(file);
+    }
+
+    /** The run finished, so there's nothing left to resume. */
+    public void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+}
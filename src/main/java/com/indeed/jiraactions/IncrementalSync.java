@@ -0,0 +1,153 @@
+package com.indeed.jiraactions;
+
+import com.indeed.jiraactions.api.response.issue.Issue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.joda.time.DateTime;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * For incremental runs. Rather than walking everything updated in the date range, and then again to catch what moved
+ * while we did (see {@link Paginator}), this picks up right after the last issue the previous run synced and walks
+ * forward in order of last update. An issue updated while we're running just moves further ahead of us, so we get to
+ * it again, and only write the actions newer than the last one we wrote for it.
+ *
+ * JQL dates only go down to the minute, so we page by the minute of the last issue synced, skip whatever we've
+ * already synced within it, and offset into it when a whole page is made of those.
+ */
+public class IncrementalSync {
+    private static final Logger log = LoggerFactory.getLogger(IncrementalSync.class);
+    /** Re-read a few issues into each page in case some before our offset were updated and moved away. */
+    private static final int OVERLAP = 5;
+
+    private final ApiPageProvider pageProvider;
+    private final Path file;
+    private final DateTime startDate;
+    private final DateTime endDate;
+    private final int batchSize;
+
+    private final SeenIssues lastActionTimes = new SeenIssues();
+    private DateTime cursorUpdated;
+    @Nullable
+    private String cursorKey;
+
+    public IncrementalSync(final ApiPageProvider pageProvider, final JiraActionsIndexBuilderConfig config) {
+        this.pageProvider = pageProvider;
+        this.file = Paths.get(config.getWatermarkFile());
+        this.startDate = JiraActionsUtil.parseDateTime(config.getStartDate());
+        this.endDate = JiraActionsUtil.parseDateTime(config.getEndDate());
+        this.batchSize = config.getJiraBatchSize();
+    }
+
+    public void process() throws IOException, InterruptedException {
+        loadWatermark();
+
+        final int overlap = Math.min(OVERLAP, batchSize / 2);
+        DateTime minute = cursorUpdated.minuteOfDay().roundFloorCopy();
+        int offset = 0;
+        int synced = 0;
+        while (true) {
+            final List<Issue> issues = pageProvider.getIssuesUpdatedSince(minute, offset, batchSize);
+            for (final Issue issue : issues) {
+                if (!isAfterCursor(issue)) {
+                    continue;
+                }
+                try {
+                    final List<Action> actions = getActionsFilterByLastSeen(issue,
+                            ActionList.of(pageProvider.getActions(issue)));
+                    pageProvider.writeActions(ActionList.of(actions).inRange(startDate, endDate));
+                } catch (final IOException | RuntimeException e) {
+                    log.error("Error parsing actions for issue {}.", issue.key, e);
+                }
+                cursorUpdated = issue.fields.updated;
+                cursorKey = issue.key;
+                synced++;
+            }
+            if (issues.size() < batchSize) {
+                break;
+            }
+
+            // Everything in the page is now at or before the cursor. Work out where the cursor's minute starts
+            // in the next search, which is everything we've seen in that minute so far.
+            final DateTime cursorMinute = cursorUpdated.minuteOfDay().roundFloorCopy();
+            if (cursorMinute.isEqual(minute)) {
+                offset += issues.size();
+            } else {
+                offset = (int) issues.stream()
+                        .filter(issue -> issue.fields.updated.minuteOfDay().roundFloorCopy().isEqual(cursorMinute))
+                        .count();
+                minute = cursorMinute;
+            }
+            offset = Math.max(offset - overlap, 0);
+        }
+        log.info("Synced {} issues, up to {} updated at {}.", synced, cursorKey, cursorUpdated);
+    }
+
+    /** Only once everything up to the cursor is safely written, or the next run won't look at it again. */
+    public void saveWatermark() throws IOException {
+        final Watermark watermark = new Watermark();
+        watermark.updated = cursorUpdated.getMillis();
+        watermark.issueKey = cursorKey;
+        lastActionTimes.forEachLastActionTime((key, millis) -> watermark.lastActionTimes.put(key, millis));
+        watermark.write(file);
+    }
+
+    private void loadWatermark() throws IOException {
+        cursorUpdated = startDate;
+        cursorKey = null;
+        if (!Files.exists(file)) {
+            log.info("No watermark at {}, syncing everything updated since {}.", file, startDate);
+            return;
+        }
+
+        final Watermark watermark = Watermark.read(file);
+        watermark.lastActionTimes.forEach((key, millis) -> {
+            // Anything that old would be out of range anyway, and this way the map doesn't grow forever
+            if (millis >= startDate.getMillis()) {
+                lastActionTimes.setLastActionTime(key, millis);
+            }
+        });
+        if (watermark.issueKey != null && watermark.updated >= startDate.getMillis()) {
+            cursorUpdated = new DateTime(watermark.updated, JiraActionsUtil.RAMSES_TIME);
+            cursorKey = watermark.issueKey;
+        }
+        log.info("Syncing from {} updated at {}.", cursorKey, cursorUpdated);
+    }
+
+    private List<Action> getActionsFilterByLastSeen(final Issue issue, final List<Action> actions) {
+        return Paginator.getActionsFilterByLastSeen(lastActionTimes, issue, actions);
+    }
+
+    /** Whether JIRA sorts {@code issue} after the last issue we synced. */
+    private boolean isAfterCursor(final Issue issue) {
+        final int byUpdated = issue.fields.updated.compareTo(cursorUpdated);
+        if (byUpdated != 0) {
+            return byUpdated > 0;
+        }
+        return cursorKey == null || compareIssueKeys(issue.key, cursorKey) > 0;
+    }
+
+    /** The way JIRA orders issue keys: by project, then numerically, so ABC-9 comes before ABC-10. */
+    private static int compareIssueKeys(final String a, final String b) {
+        final int aDash = a.lastIndexOf('-');
+        final int bDash = b.lastIndexOf('-');
+        if (aDash < 0 || bDash < 0) {
+            return a.compareTo(b);
+        }
+        final int byProject = a.substring(0, aDash).compareTo(b.substring(0, bDash));
+        if (byProject != 0) {
+            return byProject;
+        }
+        try {
+            return Long.compare(Long.parseLong(a.substring(aDash + 1)), Long.parseLong(b.substring(bDash + 1)));
+        } catch (final NumberFormatException e) {
+            return a.compareTo(b);
+        }
+    }
+}
@@ -5,15 +5,22 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import com.indeed.jiraactions.api.ApiCaller;
 import com.indeed.jiraactions.api.ApiUserLookupService;
+import com.indeed.jiraactions.api.HttpTransport;
 import com.indeed.jiraactions.api.IssuesAPICaller;
+import com.indeed.jiraactions.api.UserCache;
 import com.indeed.jiraactions.api.customfields.CustomFieldApiParser;
 import com.indeed.jiraactions.api.customfields.CustomFieldDefinition;
 import com.indeed.jiraactions.api.links.LinkTypesApiCaller;
+import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.joda.time.DateTime;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -29,21 +36,34 @@ public class JiraActionsIndexBuilder {
     }
 
     public void run() throws Exception {
+        IssuesAPICaller issuesAPICaller = null;
+        UserCache userCache = null;
+        ApiUserLookupService userLookupService = null;
+        HttpTransport httpTransport = null;
         try {
+            httpTransport = new HttpTransport(config);
             final Stopwatch stopwatch = Stopwatch.createStarted();
 
-            final ApiCaller apiCaller = new ApiCaller(config);
+            final ApiCaller apiCaller = new ApiCaller(config, httpTransport);
 
-            final ApiUserLookupService userLookupService = new ApiUserLookupService(config, apiCaller);
+            if (!StringUtils.isEmpty(config.getUserCacheFile())) {
+                userCache = new UserCache(Paths.get(config.getUserCacheFile()),
+                        TimeUnit.HOURS.toMillis(config.getUserCacheTtlHours()));
+            }
+            userLookupService = new ApiUserLookupService(config, apiCaller, userCache);
             final CustomFieldApiParser customFieldApiParser = new CustomFieldApiParser(userLookupService);
             final ActionFactory actionFactory = new ActionFactory(userLookupService, customFieldApiParser, config);
 
-            final IssuesAPICaller issuesAPICaller = new IssuesAPICaller(config, apiCaller);
-            initializeIssuesApiCaller(issuesAPICaller);
+            issuesAPICaller = new IssuesAPICaller(config, apiCaller);
+            // Incremental runs don't know what they'll find until they look
+            final boolean incremental = !StringUtils.isEmpty(config.getWatermarkFile());
+            if (!incremental) {
+                initializeIssuesApiCaller(issuesAPICaller);
 
-            if(!issuesAPICaller.currentPageExist()) {
-                log.warn("No issues found for this time range.");
-                return;
+                if(!issuesAPICaller.currentPageExist()) {
+                    log.warn("No issues found for this time range.");
+                    return;
+                }
             }
 
             long fileTime = 0;
@@ -58,16 +78,32 @@ public class JiraActionsIndexBuilder {
             final LinkTypesApiCaller linkTypesApiCaller = new LinkTypesApiCaller(config, apiCaller);
             final List<String> linkTypes = linkTypesApiCaller.getLinkTypes();
 
-            final TsvFileWriter writer = new TsvFileWriter(config, linkTypes);
+            final TsvFileWriter writer = new TsvFileWriter(config, httpTransport, linkTypes);
+            final Checkpoint resumeFrom = incremental ? null : readCheckpoint();
             final Stopwatch headerStopwatch = Stopwatch.createStarted();
-            writer.createFileAndWriteHeaders();
+            if (resumeFrom == null) {
+                writer.createFileAndWriteHeaders();
+            } else {
+                writer.reopenFiles(resumeFrom);
+            }
             headerStopwatch.stop();
             fileTime += headerStopwatch.elapsed(TimeUnit.MILLISECONDS);
 
+            // Incremental runs are short, and the watermark already keeps them from starting over
+            final Checkpointer checkpointer = incremental || StringUtils.isEmpty(config.getCheckpointFile())
+                    ? null
+                    : new Checkpointer(Paths.get(config.getCheckpointFile()), config, writer, resumeFrom);
             final ApiPageProvider apiPageProvider = new ApiPageProvider(issuesAPICaller, actionFactory, config, writer);
-            final Paginator paginator = new Paginator(apiPageProvider, startDate, endDate);
-
-            paginator.process();
+            final IncrementalSync incrementalSync = incremental ? new IncrementalSync(apiPageProvider, config) : null;
+            if (resumeFrom != null && resumeFrom.processed) {
+                log.info("Resuming a run that had written everything, so only uploading what it hadn't.");
+            } else if (incrementalSync != null) {
+                incrementalSync.process();
+            } else {
+                final Paginator paginator = new Paginator(apiPageProvider, startDate, endDate,
+                        config.getProcessingThreads(), checkpointer);
+                paginator.process();
+            }
             fileTime += apiPageProvider.getFileWritingTime();
             final long apiTime = apiPageProvider.getApiTime();
             final long processTime = apiPageProvider.getProcessingTime();
@@ -86,21 +122,74 @@ public class JiraActionsIndexBuilder {
             log.debug("No values seen for these custom fields: " + missedFields);
 
             final Stopwatch fileUploadStopwatch = Stopwatch.createStarted();
-            writer.uploadTsvFile();
+            if (checkpointer != null) {
+                checkpointer.saveProcessed();
+            }
+            final boolean uploaded = writer.uploadTsvFile(checkpointer == null
+                    ? fileName -> { }
+                    : checkpointer::saveUploaded);
             fileUploadStopwatch.stop();
             log.debug("{} ms to create and upload TSV.", fileUploadStopwatch.elapsed(TimeUnit.MILLISECONDS));
+            if (!uploaded) {
+                // Before the watermark moves past what didn't make it
+                throw new IOException("Failed to upload every TSV"
+                        + (checkpointer == null ? "" : ", resume to upload the rest"));
+            }
+            if (checkpointer != null) {
+                checkpointer.delete();
+            }
+            if (incrementalSync != null) {
+                incrementalSync.saveWatermark();
+            }
 
             stopwatch.stop();
 
-            final long apiUserTime = userLookupService.getUserLookupTotalTime();
-
             log.info("{} ms for the whole process.", stopwatch.elapsed(TimeUnit.MILLISECONDS));
-            log.info("apiTime: {}ms, processTime: {}ms, fileTime: {}ms, userLookupTime: {}ms",
-                    apiTime-apiUserTime, processTime, fileTime, apiUserTime);
+            log.info("apiTime: {}ms (of which userPrefetchTime: {}ms), processTime: {}ms (of which userLookupTime: {}ms), fileTime: {}ms",
+                    apiTime, userLookupService.getPrefetchTotalTime(),
+                    processTime, userLookupService.getUserLookupTotalTime(), fileTime);
+            log.info("apiBytes: {} on the wire, {} decompressed",
+                    apiCaller.getCompressedBytes(), apiCaller.getDecompressedBytes());
         } catch (final Exception e) {
             log.error("Threw an exception trying to run the index builder", e);
             throw e;
+        } finally {
+            if (issuesAPICaller != null) {
+                issuesAPICaller.close();
+            }
+            if (userLookupService != null) {
+                userLookupService.close();
+            }
+            if (userCache != null) {
+                userCache.close();
+            }
+            // Last, so nothing still prefetching finds its connection gone
+            if (httpTransport != null) {
+                httpTransport.close();
+            }
+        }
+    }
+
+    @Nullable
+    private Checkpoint readCheckpoint() throws IOException {
+        if (!config.getResume()) {
+            return null;
+        }
+        if (StringUtils.isEmpty(config.getCheckpointFile())) {
+            throw new IllegalArgumentException("Can't resume without a checkpoint.file");
+        }
+
+        final Path file = Paths.get(config.getCheckpointFile());
+        if (!Files.exists(file)) {
+            log.warn("No checkpoint at {}, starting from the beginning.", file);
+            return null;
+        }
+        final Checkpoint checkpoint = Checkpoint.read(file);
+        if (!checkpoint.isFor(config)) {
+            throw new IllegalArgumentException(String.format("Checkpoint %s is for %s from %s to %s, not this run.",
+                    file, checkpoint.indexName, checkpoint.startDate, checkpoint.endDate));
         }
+        return checkpoint;
     }
 
     private void initializeIssuesApiCaller(final IssuesAPICaller issuesAPICaller) throws IOException {
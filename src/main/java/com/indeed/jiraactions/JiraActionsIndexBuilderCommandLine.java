@@ -54,11 +54,20 @@ public class JiraActionsIndexBuilderCommandLine {
                         "jiraBatchSize",
                         "Number of issues to retrieve in each batch",
                         "arg"
+                )).addOption(buildOption(
+                        "jiraParallelism",
+                        "Number of batches to fetch from JIRA concurrently",
+                        "arg",
+                        false
+                )).addOption(buildFlag(
+                        "resume",
+                        "Continue from the checkpoint in checkpoint.file instead of starting over"
                 ));
 
         final String startDate;
         final String endDate;
         final int jiraBatchSize;
+        final Integer jiraParallelism;
         final CommandLineParser parser = new GnuParser();
         final CommandLine commandLineArgs;
         final CustomFieldDefinition[] customFieldDefinitions;
@@ -67,6 +76,9 @@ public class JiraActionsIndexBuilderCommandLine {
             startDate = commandLineArgs.getOptionValue("start");
             endDate = commandLineArgs.getOptionValue("end");
             jiraBatchSize = Integer.parseInt(commandLineArgs.getOptionValue("jiraBatchSize"));
+            jiraParallelism = commandLineArgs.hasOption("jiraParallelism")
+                    ? Integer.parseInt(commandLineArgs.getOptionValue("jiraParallelism"))
+                    : null;
 
             final String propFileName = commandLineArgs.getOptionValue("props");
             final PropertiesConfiguration config = new PropertiesConfiguration();
@@ -93,7 +105,7 @@ public class JiraActionsIndexBuilderCommandLine {
                 customFieldDefinitions = CustomFieldDefinitionParser.parseCustomFields(this.getClass().getClassLoader().getResourceAsStream(customFieldsPath));
             }
 
-            final JiraActionsIndexBuilderConfig indexBuilderConfig = ImmutableJiraActionsIndexBuilderConfig.builder()
+            final ImmutableJiraActionsIndexBuilderConfig.Builder configBuilder = ImmutableJiraActionsIndexBuilderConfig.builder()
                     .jiraUsername(jiraUsername)
                     .jiraPassword(jiraPassword)
                     .jiraBaseURL(jiraBaseUrl)
@@ -108,9 +120,51 @@ public class JiraActionsIndexBuilderCommandLine {
                     .endDate(endDate)
                     .jiraBatchSize(jiraBatchSize)
                     .indexName(indexName)
-                    .customFields(customFieldDefinitions)
-                    .build();
-            indexBuilder = new JiraActionsIndexBuilder(indexBuilderConfig);
+                    .customFields(customFieldDefinitions);
+            if (jiraParallelism != null) {
+                configBuilder.jiraParallelism(jiraParallelism);
+            }
+            if (config.containsKey("processing.threads")) {
+                configBuilder.processingThreads(config.getInt("processing.threads"));
+            }
+            if (config.containsKey("writer.threads")) {
+                configBuilder.writerThreads(config.getInt("writer.threads"));
+            }
+            if (config.containsKey("userlookup.parallelism")) {
+                configBuilder.userLookupParallelism(config.getInt("userlookup.parallelism"));
+            }
+            if (config.containsKey("http.maxconnectionsperroute")) {
+                configBuilder.httpMaxConnectionsPerRoute(config.getInt("http.maxconnectionsperroute"));
+            }
+            if (config.containsKey("http.connecttimeoutmillis")) {
+                configBuilder.httpConnectTimeoutMillis(config.getInt("http.connecttimeoutmillis"));
+            }
+            if (config.containsKey("http.readtimeoutmillis")) {
+                configBuilder.httpReadTimeoutMillis(config.getInt("http.readtimeoutmillis"));
+            }
+            if (config.containsKey("usercache.file")) {
+                configBuilder.userCacheFile(config.getString("usercache.file"));
+            }
+            if (config.containsKey("usercache.ttlhours")) {
+                configBuilder.userCacheTtlHours(config.getInt("usercache.ttlhours"));
+            }
+            if (config.containsKey("jira.backoffmillis")) {
+                configBuilder.jiraBackoffMillis(config.getInt("jira.backoffmillis"));
+            }
+            if (config.containsKey("record.directory")) {
+                configBuilder.recordDirectory(config.getString("record.directory"));
+            }
+            if (config.containsKey("checkpoint.file")) {
+                configBuilder.checkpointFile(config.getString("checkpoint.file"));
+            }
+            if (config.containsKey("checkpoint.intervalseconds")) {
+                configBuilder.checkpointIntervalSeconds(config.getInt("checkpoint.intervalseconds"));
+            }
+            if (config.containsKey("watermark.file")) {
+                configBuilder.watermarkFile(config.getString("watermark.file"));
+            }
+            configBuilder.resume(commandLineArgs.hasOption("resume"));
+            indexBuilder = new JiraActionsIndexBuilder(configBuilder.build());
 
         } catch (final ParseException|ConfigurationException|IOException e) {
             LOGGER.error("Failed to initialize builder", e);
@@ -119,14 +173,25 @@ public class JiraActionsIndexBuilderCommandLine {
     }
 
     private Option buildOption(final String name, final String description, final String argName) {
+        return buildOption(name, description, argName, true);
+    }
+
+    private Option buildOption(final String name, final String description, final String argName,
+                               final boolean required) {
         OptionBuilder.withLongOpt(name);
-        OptionBuilder.isRequired();
+        OptionBuilder.isRequired(required);
         OptionBuilder.hasArg();
         OptionBuilder.withArgName(argName);
         OptionBuilder.withDescription(description);
         return OptionBuilder.create(name);
     }
 
+    private Option buildFlag(final String name, final String description) {
+        OptionBuilder.withLongOpt(name);
+        OptionBuilder.withDescription(description);
+        return OptionBuilder.create(name);
+    }
+
     private void run() {
         try {
             indexBuilder.run();
@@ -21,4 +21,96 @@ public interface JiraActionsIndexBuilderConfig {
     int getJiraBatchSize();
     String getIndexName();
     CustomFieldDefinition[] getCustomFields();
+
+    /** Number of search pages fetched concurrently; 1 or less fetches one page at a time. */
+    @Value.Default
+    default int getJiraParallelism() {
+        return 4;
+    }
+
+    /** Number of users looked up concurrently; 1 or less looks them up one at a time. */
+    @Value.Default
+    default int getUserLookupParallelism() {
+        return 4;
+    }
+
+    /** Number of issues of a page whose actions are built concurrently. */
+    @Value.Default
+    default int getProcessingThreads() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Number of threads writing the TSVs, each writing every so many days; 1 or less writes them on the thread
+     * building the actions.
+     */
+    @Value.Default
+    default int getWriterThreads() {
+        return 4;
+    }
+
+    @Value.Default
+    default int getHttpMaxConnectionsPerRoute() {
+        return 8;
+    }
+
+    @Value.Default
+    default int getHttpConnectTimeoutMillis() {
+        return 30_000;
+    }
+
+    /** Searches with an expanded changelog can take minutes to come back. */
+    @Value.Default
+    default int getHttpReadTimeoutMillis() {
+        return 300_000;
+    }
+
+    /** File that keeps looked up users between runs; empty disables it. */
+    @Value.Default
+    default String getUserCacheFile() {
+        return "";
+    }
+
+    @Value.Default
+    default int getUserCacheTtlHours() {
+        return 24 * 7;
+    }
+
+    /** How long to wait after the first failed search; doubles with every failure in a row. */
+    @Value.Default
+    default int getJiraBackoffMillis() {
+        return 10_000;
+    }
+
+    /** Directory to save every JIRA response to, for replaying a run offline; empty disables it. */
+    @Value.Default
+    default String getRecordDirectory() {
+        return "";
+    }
+
+    /** File to checkpoint progress to, so a failed run can be resumed; empty disables it. */
+    @Value.Default
+    default String getCheckpointFile() {
+        return "";
+    }
+
+    @Value.Default
+    default int getCheckpointIntervalSeconds() {
+        return 60;
+    }
+
+    /** Continue from the checkpoint file instead of starting over. */
+    @Value.Default
+    default boolean getResume() {
+        return false;
+    }
+
+    /**
+     * File with how far incremental runs have got. Setting it makes this an incremental run, which only syncs what
+     * was updated since the last one; empty does a full run.
+     */
+    @Value.Default
+    default String getWatermarkFile() {
+        return "";
+    }
 }
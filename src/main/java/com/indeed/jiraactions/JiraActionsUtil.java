@@ -53,12 +53,92 @@ public abstract class JiraActionsUtil {
         throw new IllegalArgumentException("could not parse date: " + arg);
     }
 
+    /**
+     * The same instant as {@link #parseDateTime}, in epoch millis. Jira's own {@code yyyy-MM-dd'T'HH:mm:ss.SSSZ}
+     * timestamps, which is every one in a response, are read directly; anything else goes through
+     * {@link #parseDateTime}.
+     */
+    public static long parseMillis(final String arg) {
+        final long millis = parseJiraTimestamp(arg);
+        return millis != Long.MIN_VALUE ? millis : parseDateTime(arg).getMillis();
+    }
+
+    private static final String JIRA_TIMESTAMP_FORMAT = "dddd-dd-ddTdd:dd:dd.ddd+dddd";
+    private static final int[] DAYS_IN_MONTH = { 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31 };
+
+    /** {@code Long.MIN_VALUE} if it's not exactly {@link #JIRA_TIMESTAMP_FORMAT}, or not a real date and time. */
+    private static long parseJiraTimestamp(final String arg) {
+        if (arg.length() != JIRA_TIMESTAMP_FORMAT.length()) {
+            return Long.MIN_VALUE;
+        }
+        for (int i = 0; i < arg.length(); i++) {
+            final char expected = JIRA_TIMESTAMP_FORMAT.charAt(i);
+            final char c = arg.charAt(i);
+            if (expected == 'd' ? c < '0' || c > '9' : expected == '+' ? c != '+' && c != '-' : c != expected) {
+                return Long.MIN_VALUE;
+            }
+        }
+
+        final int year = digits(arg, 0, 4);
+        final int month = digits(arg, 5, 2);
+        final int day = digits(arg, 8, 2);
+        final int hour = digits(arg, 11, 2);
+        final int minute = digits(arg, 14, 2);
+        final int second = digits(arg, 17, 2);
+        final int millis = digits(arg, 20, 3);
+        final int offsetHours = digits(arg, 24, 2);
+        final int offsetMinutes = digits(arg, 26, 2);
+        if (month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)
+                || hour > 23 || minute > 59 || second > 59 || offsetHours > 23 || offsetMinutes > 59) {
+            return Long.MIN_VALUE;
+        }
+
+        final long offsetSeconds = (arg.charAt(23) == '-' ? -1 : 1) * (offsetHours * 3600L + offsetMinutes * 60L);
+        final long seconds = epochDay(year, month, day) * 86400L + hour * 3600L + minute * 60L + second - offsetSeconds;
+        return seconds * 1000L + millis;
+    }
+
+    private static int digits(final String s, final int from, final int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            value = value * 10 + (s.charAt(i) - '0');
+        }
+        return value;
+    }
+
+    private static int daysInMonth(final int year, final int month) {
+        final boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+        return month == 2 && leap ? 29 : DAYS_IN_MONTH[month - 1];
+    }
+
+    /** Days since 1970-01-01 in the proleptic Gregorian calendar, for years from 0 on. */
+    private static long epochDay(final int year, final int month, final int day) {
+        final int y = month <= 2 ? year - 1 : year;
+        final int era = (y >= 0 ? y : y - 399) / 400;
+        final int yearOfEra = y - era * 400;
+        final int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    /** The day {@code millis} falls on in {@link #RAMSES_TIME}, as days since 1970-01-01. */
+    public static long toEpochDay(final long millis) {
+        return Math.floorDiv(millis + RAMSES_OFFSET_MILLIS, DAY_MILLIS);
+    }
+
+    private static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
+    private static final int RAMSES_OFFSET_MILLIS = RAMSES_TIME.getOffset(0L);
+
     @Nonnull
     public static String getUnixTimestamp(@Nullable final DateTime date) {
         if(date == null) {
             return "";
         }
-        final long unixTime = date.getMillis()/1000;
-        return String.valueOf(unixTime);
+        return getUnixTimestamp(date.getMillis());
+    }
+
+    @Nonnull
+    public static String getUnixTimestamp(final long millis) {
+        return String.valueOf(millis/1000);
     }
 }
@@ -0,0 +1,222 @@
+package com.indeed.jiraactions;
+
+import com.indeed.jiraactions.api.customfields.CustomFieldDefinition;
+import com.indeed.jiraactions.api.customfields.CustomFieldValue;
+import com.indeed.jiraactions.api.links.Link;
+import com.indeed.jiraactions.api.response.issue.User;
+import org.joda.time.DateTime;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The state of an issue as of some action, which {@link ActionFactory} moves forward in place one history or comment
+ * at a time. {@link ActionsBuilder} only turns it into an {@link ImmutableAction} for the actions it keeps.
+ *
+ * Copies share the custom field values and links with the state they were taken from, so that copying the state
+ * only costs more memory where something actually changed. That means neither is ever changed in place: a change
+ * replaces the whole map or set.
+ */
+final class MutableAction implements Action {
+    String action;
+    User actor;
+    User assignee;
+    String fieldschanged;
+    long issueage;
+    String issuekey;
+    String issuetype;
+    String project;
+    String projectkey;
+    String prevstatus;
+    User reporter;
+    String resolution;
+    String status;
+    String summary;
+    long timeinstate;
+    long timesinceaction;
+    /** Epoch millis, only made into a {@link DateTime} if something asks for one. */
+    long timestamp;
+    String category;
+    String fixversions;
+    String dueDate;
+    String components;
+    String labels;
+    String createdDate;
+    String priority;
+    Map<CustomFieldDefinition, CustomFieldValue> customFieldValues;
+    Set<Link> links;
+
+    MutableAction() {
+    }
+
+    static MutableAction copyOf(final Action other) {
+        final MutableAction copy = new MutableAction();
+        copy.action = other.getAction();
+        copy.actor = other.getActor();
+        copy.assignee = other.getAssignee();
+        copy.fieldschanged = other.getFieldschanged();
+        copy.issueage = other.getIssueage();
+        copy.issuekey = other.getIssuekey();
+        copy.issuetype = other.getIssuetype();
+        copy.project = other.getProject();
+        copy.projectkey = other.getProjectkey();
+        copy.prevstatus = other.getPrevstatus();
+        copy.reporter = other.getReporter();
+        copy.resolution = other.getResolution();
+        copy.status = other.getStatus();
+        copy.summary = other.getSummary();
+        copy.timeinstate = other.getTimeinstate();
+        copy.timesinceaction = other.getTimesinceaction();
+        copy.timestamp = other.getTimestampMillis();
+        copy.category = other.getCategory();
+        copy.fixversions = other.getFixversions();
+        copy.dueDate = other.getDueDate();
+        copy.components = other.getComponents();
+        copy.labels = other.getLabels();
+        copy.createdDate = other.getCreatedDate();
+        copy.priority = other.getPriority();
+        copy.customFieldValues = other.getCustomFieldValues();
+        copy.links = other.getLinks();
+        return copy;
+    }
+
+    /** A snapshot of the state as it is now, which the state moving on doesn't change. */
+    Action toAction() {
+        return ImmutableAction.copyOf(this);
+    }
+
+    @Override
+    public String getAction() {
+        return action;
+    }
+
+    @Override
+    public User getActor() {
+        return actor;
+    }
+
+    @Override
+    public User getAssignee() {
+        return assignee;
+    }
+
+    @Override
+    public String getFieldschanged() {
+        return fieldschanged;
+    }
+
+    @Override
+    public long getIssueage() {
+        return issueage;
+    }
+
+    @Override
+    public String getIssuekey() {
+        return issuekey;
+    }
+
+    @Override
+    public String getIssuetype() {
+        return issuetype;
+    }
+
+    @Override
+    public String getProject() {
+        return project;
+    }
+
+    @Override
+    public String getProjectkey() {
+        return projectkey;
+    }
+
+    @Override
+    public String getPrevstatus() {
+        return prevstatus;
+    }
+
+    @Override
+    public User getReporter() {
+        return reporter;
+    }
+
+    @Override
+    public String getResolution() {
+        return resolution;
+    }
+
+    @Override
+    public String getStatus() {
+        return status;
+    }
+
+    @Override
+    public String getSummary() {
+        return summary;
+    }
+
+    @Override
+    public long getTimeinstate() {
+        return timeinstate;
+    }
+
+    @Override
+    public long getTimesinceaction() {
+        return timesinceaction;
+    }
+
+    @Override
+    public DateTime getTimestamp() {
+        return new DateTime(timestamp, JiraActionsUtil.RAMSES_TIME);
+    }
+
+    @Override
+    public long getTimestampMillis() {
+        return timestamp;
+    }
+
+    @Override
+    public String getCategory() {
+        return category;
+    }
+
+    @Override
+    public String getFixversions() {
+        return fixversions;
+    }
+
+    @Override
+    public String getDueDate() {
+        return dueDate;
+    }
+
+    @Override
+    public String getComponents() {
+        return components;
+    }
+
+    @Override
+    public String getLabels() {
+        return labels;
+    }
+
+    @Override
+    public String getCreatedDate() {
+        return createdDate;
+    }
+
+    @Override
+    public String getPriority() {
+        return priority;
+    }
+
+    @Override
+    public Map<CustomFieldDefinition, CustomFieldValue> getCustomFieldValues() {
+        return customFieldValues;
+    }
+
+    @Override
+    public Set<Link> getLinks() {
+        return links;
+    }
+}
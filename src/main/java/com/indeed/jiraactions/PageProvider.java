@@ -1,25 +1,28 @@
 package com.indeed.jiraactions;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.indeed.jiraactions.api.response.issue.Issue;
 
-import javax.annotation.Nullable;
 import java.io.IOException;
 import java.util.List;
 
 public interface PageProvider {
     boolean hasPage();
 
-    JsonNode getRawPage() throws InterruptedException;
-
     void reset();
 
-    @Nullable
-    Issue processNode(final JsonNode issueNode);
-
     Iterable<Issue> getPage() throws InterruptedException;
 
+    /**
+     * The issue's actions in timestamp order. Only those in the date range have to be there, as long as the last one
+     * is too.
+     */
     List<Action> getActions(final Issue issue) throws IOException;
 
     void writeActions(final List<Action> actions) throws IOException;
+
+    /** Where the next page starts, for a checkpoint to {@link #seek} back to. */
+    int getPosition();
+
+    /** Makes the next page the one starting at {@code position}, from {@link #getPosition()}. */
+    void seek(final int position);
 }
@@ -3,16 +3,18 @@ package com.indeed.jiraactions;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.indeed.jiraactions.api.response.issue.Issue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.joda.time.DateTime;
 
-import java.util.HashMap;
-import java.util.HashSet;
+import javax.annotation.Nullable;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -22,11 +24,32 @@ public class Paginator {
     private final PageProvider pageProvider;
     private final DateTime startDate;
     private final DateTime endDate;
+    private final int processingThreads;
+    @Nullable
+    private final Checkpointer checkpointer;
 
     public Paginator(final PageProvider pageProvider, final DateTime startDate, final DateTime endDate) {
+        this(pageProvider, startDate, endDate, 1);
+    }
+
+    public Paginator(final PageProvider pageProvider, final DateTime startDate, final DateTime endDate,
+                     final int processingThreads) {
+        this(pageProvider, startDate, endDate, processingThreads, null);
+    }
+
+    /**
+     * @param processingThreads number of issues of a page whose actions are built concurrently; 1 or less builds
+     *                          them one at a time, as each is reached. Actions are always filtered and written in
+     *                          page order.
+     * @param checkpointer if not null, where to checkpoint between pages, and resume from
+     */
+    public Paginator(final PageProvider pageProvider, final DateTime startDate, final DateTime endDate,
+                     final int processingThreads, @Nullable final Checkpointer checkpointer) {
         this.pageProvider = pageProvider;
         this.startDate = startDate;
         this.endDate = endDate;
+        this.processingThreads = processingThreads;
+        this.checkpointer = checkpointer;
     }
 
     /*
@@ -54,25 +77,60 @@ public class Paginator {
      * 3) We find something we've already seen at the very beginning of our list. We're done.
      */
     public void process() throws InterruptedException {
-        final Map<String, DateTime> seenIssues = new HashMap<>();
+        final ExecutorService executor = processingThreads > 1
+                ? Executors.newFixedThreadPool(processingThreads, new ThreadFactoryBuilder()
+                        .setNameFormat("action-builder-%d")
+                        .setDaemon(true)
+                        .build())
+                : null;
+        try {
+            process(executor);
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private void process(@Nullable final ExecutorService executor) throws InterruptedException {
+        final SeenIssues seenIssues = new SeenIssues();
         boolean reFoundTheBeginning = false;
         boolean firstIssue = true;
-        boolean firstPass = true;
-        while (!reFoundTheBeginning || !firstIssue) {
+        int pass = 0;
+
+        final Checkpoint resumeFrom = checkpointer == null ? null : checkpointer.getResumeFrom();
+        if (resumeFrom != null) {
+            firstIssue = resumeFrom.firstIssue;
+            pass = resumeFrom.pass;
+            resumeFrom.seenIssues.forEach(seenIssues::setLastActionTime);
+            for (final String key : resumeFrom.seenThisPass) {
+                seenIssues.markSeenInPass(key, pass);
+            }
+            pageProvider.seek(resumeFrom.startAt);
+            log.info("Resuming pass {} at {}, having seen {} issues.", pass, resumeFrom.startAt, seenIssues.size());
+        }
+
+        do {
+            final boolean firstPass = pass == 0;
             reFoundTheBeginning = false;
-            firstIssue = true;
-            final Set<String> seenThisLoop = new HashSet<>();
 
             while (pageProvider.hasPage()) {
                 final Stopwatch stopwatch = Stopwatch.createStarted();
                 final List<Issue> issues = Lists.newArrayList(pageProvider.getPage());
                 log.debug(String.join(", ", issues.stream().map(x -> x.key).collect(Collectors.toList())));
-                for(final Issue issue : issues) {
+                final List<Future<List<Action>>> pendingActions = executor == null
+                        ? null
+                        : issues.stream()
+                                .map(issue -> executor.submit(() -> pageProvider.getActions(issue)))
+                                .collect(Collectors.toList());
+                for(int i = 0; i < issues.size(); i++) {
+                    final Issue issue = issues.get(i);
                     try {
-                        final List<Action> preFilteredActions = pageProvider.getActions(issue);
+                        final ActionList preFilteredActions = ActionList.of(pendingActions == null
+                                ? pageProvider.getActions(issue)
+                                : getActions(pendingActions.get(i)));
                         final List<Action> actions = getActionsFilterByLastSeen(seenIssues, issue, preFilteredActions);
-                        final List<Action> filteredActions = actions.stream().filter(a -> a.isInRange(startDate, endDate)).collect(Collectors.toList());
-                        pageProvider.writeActions(filteredActions);
+                        pageProvider.writeActions(ActionList.of(actions).inRange(startDate, endDate));
 
 
                         final boolean ignoreForEndDetection = ignoreUpdatedDate(issue, preFilteredActions);
@@ -80,20 +138,25 @@ public class Paginator {
                                 && preFilteredActions.size() > 0 // It had issues in our time range; so we can tell if it was filtered
                                 && actions.size() == 0// There is nothing new since the last time we saw it
                                 && !ignoreForEndDetection // Ignore out of order issues
-                                && !seenThisLoop.contains(issue.key) // Ignore if we see it and a few things push it down into our page
+                                && !seenIssues.wasSeenInPass(issue.key, pass) // Ignore if we see it and a few things push it down into our page
                              ) {
                             log.debug("Saw no new actions for {}, stopping.", issue.key);
                             reFoundTheBeginning = true;
                             break;
                         }
-                        seenThisLoop.add(issue.key);
+                        seenIssues.markSeenInPass(issue.key, pass);
                         if(preFilteredActions.size() > 0 && !ignoreForEndDetection) {
                             firstIssue = false;
                         }
+                    } catch (final InterruptedException e) {
+                        throw e;
                     } catch (final Exception e) {
                         log.error("Error parsing actions for issue {}.", issue.key, e);
                     }
                 }
+                if (pendingActions != null) {
+                    pendingActions.forEach(future -> future.cancel(true));
+                }
 
                 stopwatch.stop();
                 log.trace("{} ms to get actions from a set of issues.", stopwatch.elapsed(TimeUnit.MILLISECONDS));
@@ -102,10 +165,47 @@ public class Paginator {
                 if(reFoundTheBeginning) {
                     break;
                 }
+                if (isCheckpointDue()) {
+                    checkpoint(pass, pageProvider.getPosition(), firstIssue, seenIssues);
+                }
+            }
+            if (reFoundTheBeginning && firstIssue) {
+                break;
             }
             pageProvider.reset();
-            firstPass = false;
+            pass++;
+            firstIssue = true;
             log.info("Starting over to pick up lost issues.");
+            if (isCheckpointDue()) {
+                checkpoint(pass, 0, firstIssue, seenIssues);
+            }
+        } while (true);
+        pageProvider.reset();
+    }
+
+    private boolean isCheckpointDue() {
+        return checkpointer != null && checkpointer.isDue();
+    }
+
+    private void checkpoint(final int pass, final int startAt, final boolean firstIssue,
+                            final SeenIssues seenIssues) {
+        final Checkpoint checkpoint = new Checkpoint();
+        checkpoint.pass = pass;
+        checkpoint.startAt = startAt;
+        checkpoint.firstIssue = firstIssue;
+        seenIssues.forEachLastActionTime((key, millis) -> checkpoint.seenIssues.put(key, millis));
+        seenIssues.forEachSeenInPass(pass, checkpoint.seenThisPass::add);
+        checkpointer.save(checkpoint);
+    }
+
+    private static List<Action> getActions(final Future<List<Action>> pendingActions) throws Exception {
+        try {
+            return pendingActions.get();
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
         }
     }
 
@@ -121,7 +221,7 @@ public class Paginator {
      * ATTENTION: Requires that actions be sorted by timestamp, ascending.
      */
     protected static boolean ignoreUpdatedDate(final Issue issue, final List<Action> actions) {
-        return issue.fields.updated.isAfter(actions.get(actions.size()-1).getTimestamp());
+        return issue.fields.updated.getMillis() > actions.get(actions.size()-1).getTimestampMillis();
     }
 
     /**
@@ -130,26 +230,23 @@ public class Paginator {
      * prevent this, we'll keep track of the last timestamp for each issue, and filter out anything that's before that
      * timestamp if we see an issue again.
      *
-     * ATTENTION: Requires that actions be sorted by timestamp, ascending.
+     * ATTENTION: Requires that actions be sorted by timestamp, ascending. Pass an {@link ActionList} to get a view
+     * of it back rather than a copy.
      */
     @VisibleForTesting
-    protected static List<Action> getActionsFilterByLastSeen(final Map<String, DateTime> seenIssues, final Issue issue,
+    protected static List<Action> getActionsFilterByLastSeen(final SeenIssues seenIssues, final Issue issue,
                                                              final List<Action> actions) {
         if(actions.size() == 0) {
             return actions;
         }
 
-        final List<Action> output;
-        if(!seenIssues.containsKey(issue.key)) {
-            output = actions;
-        } else {
-            final DateTime lastActionTime = seenIssues.remove(issue.key); // Need to change its ordering in the map
-            // We could binary search this instead for efficiency, but I don't think it's worth the extra work right now
-            output = actions.stream().filter(a -> a.getTimestamp().isAfter(lastActionTime)).collect(Collectors.toList());
-        }
+        final ActionList sortedActions = ActionList.of(actions);
+        final long lastActionTime = seenIssues.getLastActionTime(issue.key);
+        final List<Action> output = lastActionTime == SeenIssues.NONE
+                ? sortedActions
+                : sortedActions.after(lastActionTime);
 
-        final DateTime lastTimestamp = actions.get(actions.size()-1).getTimestamp();
-        seenIssues.put(issue.key, lastTimestamp);
+        seenIssues.setLastActionTime(issue.key, sortedActions.getLastMillis());
         return output;
     }
 }
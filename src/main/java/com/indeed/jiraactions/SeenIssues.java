@@ -0,0 +1,196 @@
+package com.indeed.jiraactions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * What the {@link Paginator} remembers about every issue it has seen: the time of the last action it wrote, and the
+ * last pass it saw the issue in. A backfill can see hundreds of thousands of issues, so rather than a map of String
+ * keys to DateTimes, keys are packed into a long (project, number) and everything lives in flat arrays of an
+ * open-addressing table.
+ */
+public class SeenIssues {
+    /** Returned for issues we haven't written any actions for. */
+    public static final long NONE = Long.MIN_VALUE;
+
+    private static final long EMPTY = 0; // Project ids start at 1, so no packed key is 0
+    private static final long NOT_A_NUMBER = 0xFFFFFFFFL;
+    private static final int NEVER = -1;
+
+    private final Map<String, Integer> projectIds = new HashMap<>();
+    private final List<String> projects = new ArrayList<>();
+
+    private long[] keys;
+    private long[] lastActionTimes;
+    private int[] lastPasses;
+    private int entries = 0;
+    private int withActions = 0;
+
+    public SeenIssues() {
+        this(1024);
+    }
+
+    public SeenIssues(final int expectedIssues) {
+        allocate(Integer.highestOneBit(Math.max(expectedIssues, 8) * 2 - 1) * 2);
+    }
+
+    /**
+     * @return the time of the last action written for {@code issueKey}, or {@link #NONE}
+     */
+    public long getLastActionTime(final String issueKey) {
+        final int slot = find(pack(issueKey, false));
+        return slot < 0 ? NONE : lastActionTimes[slot];
+    }
+
+    public void setLastActionTime(final String issueKey, final long millis) {
+        final int slot = findOrInsert(pack(issueKey, true));
+        if (lastActionTimes[slot] == NONE) {
+            withActions++;
+        }
+        lastActionTimes[slot] = millis;
+    }
+
+    public boolean wasSeenInPass(final String issueKey, final int pass) {
+        final int slot = find(pack(issueKey, false));
+        return slot >= 0 && lastPasses[slot] == pass;
+    }
+
+    public void markSeenInPass(final String issueKey, final int pass) {
+        lastPasses[findOrInsert(pack(issueKey, true))] = pass;
+    }
+
+    /** Number of issues we've written actions for. */
+    public int size() {
+        return withActions;
+    }
+
+    public void forEachLastActionTime(final ObjLongConsumer<String> consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY && lastActionTimes[i] != NONE) {
+                consumer.accept(unpack(keys[i]), lastActionTimes[i]);
+            }
+        }
+    }
+
+    public void forEachSeenInPass(final int pass, final Consumer<String> consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY && lastPasses[i] == pass) {
+                consumer.accept(unpack(keys[i]));
+            }
+        }
+    }
+
+    /**
+     * ABC-123 packs to ABC's project id in the high half and 123 in the low half. Keys that don't look like that
+     * get a "project" of their own, with a number no real key can have.
+     *
+     * @return the packed key, or {@link #EMPTY} if we've never seen its project and {@code create} is false
+     */
+    private long pack(final String issueKey, final boolean create) {
+        final int dash = issueKey.lastIndexOf('-');
+        final long number = dash > 0 ? parseNumber(issueKey, dash + 1) : NOT_A_NUMBER;
+        final String project = number == NOT_A_NUMBER ? issueKey : issueKey.substring(0, dash);
+
+        Integer projectId = projectIds.get(project);
+        if (projectId == null) {
+            if (!create) {
+                return EMPTY;
+            }
+            projects.add(project);
+            projectId = projects.size();
+            projectIds.put(project, projectId);
+        }
+        return ((long) projectId << 32) | number;
+    }
+
+    private String unpack(final long key) {
+        final String project = projects.get((int) (key >>> 32) - 1);
+        final long number = key & 0xFFFFFFFFL;
+        return number == NOT_A_NUMBER ? project : project + '-' + number;
+    }
+
+    private static long parseNumber(final String issueKey, final int start) {
+        if (start == issueKey.length() || issueKey.length() - start > 9) {
+            return NOT_A_NUMBER;
+        }
+        long number = 0;
+        for (int i = start; i < issueKey.length(); i++) {
+            final char c = issueKey.charAt(i);
+            if (c < '0' || c > '9') {
+                return NOT_A_NUMBER;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    }
+
+    private int find(final long key) {
+        if (key == EMPTY) {
+            return -1;
+        }
+        final int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return slot;
+            } else if (keys[slot] == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    private int findOrInsert(final long key) {
+        if (entries * 2 >= keys.length) {
+            grow();
+        }
+        final int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return slot;
+            } else if (keys[slot] == EMPTY) {
+                keys[slot] = key;
+                entries++;
+                return slot;
+            }
+        }
+    }
+
+    private void grow() {
+        final long[] oldKeys = keys;
+        final long[] oldLastActionTimes = lastActionTimes;
+        final int[] oldLastPasses = lastPasses;
+        allocate(oldKeys.length * 2);
+        final int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) {
+                continue;
+            }
+            int slot = hash(oldKeys[i]) & mask;
+            while (keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            lastActionTimes[slot] = oldLastActionTimes[i];
+            lastPasses[slot] = oldLastPasses[i];
+        }
+    }
+
+    private void allocate(final int capacity) {
+        keys = new long[capacity];
+        lastActionTimes = new long[capacity];
+        Arrays.fill(lastActionTimes, NONE);
+        lastPasses = new int[capacity];
+        Arrays.fill(lastPasses, NEVER);
+    }
+
+    /** Consecutive issue numbers would otherwise land in consecutive slots. */
+    private static int hash(final long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        return (int) h;
+    }
+}
@@ -12,6 +12,7 @@ import org.joda.time.DateTime;
 
 import java.util.List;
 import java.util.function.Function;
+import java.util.function.ToLongFunction;
 
 public class TSVSpecBuilder {
     private static final Logger log = LoggerFactory.getLogger(TSVSpecBuilder.class);
@@ -43,6 +44,11 @@ public class TSVSpecBuilder {
         return this;
     }
 
+    public TSVSpecBuilder addTimeMillisColumn(final String header, final ToLongFunction<Action> millisExtractor) {
+        addColumn(header, action -> JiraActionsUtil.getUnixTimestamp(millisExtractor.applyAsLong(action)));
+        return this;
+    }
+
     public TSVSpecBuilder addLongColumn(final String header, final Function<Action, Long> longExtractor) {
         addColumn(header, action -> String.valueOf(longExtractor.apply(action)));
         return this;
@@ -50,10 +56,9 @@ public class TSVSpecBuilder {
 
     public TSVSpecBuilder addCustomFieldColumns(final CustomFieldDefinition customField) {
         final List<String> headers = customField.getHeaders();
-        final Function<Action, List<String>> valueExtractor = action -> getCustomFieldValue(customField, action);
         for (int i = 0; i < headers.size(); i++) {
             final int index = i;
-            addColumn(headers.get(index), action -> valueExtractor.apply(action).get(index));
+            addColumn(headers.get(index), action -> getCustomFieldValue(customField, action).getValue(index));
         }
         return this;
     }
@@ -71,7 +76,7 @@ public class TSVSpecBuilder {
         return this;
     }
 
-    private static List<String> getCustomFieldValue(final CustomFieldDefinition customField, final Action action) {
+    private static CustomFieldValue getCustomFieldValue(final CustomFieldDefinition customField, final Action action) {
         final CustomFieldValue value = action.getCustomFieldValues().get(customField);
         if (value == null) {
             log.error(
@@ -79,9 +84,9 @@ public class TSVSpecBuilder {
                     customField.getImhotepFieldName(),
                     action.getIssuekey()
             );
-            return CustomFieldValue.emptyCustomField(customField).getValues();
+            return CustomFieldValue.emptyCustomField(customField);
         } else {
-            return value.getValues();
+            return value;
         }
     }
 
@@ -1,43 +1,110 @@
 package com.indeed.jiraactions;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.indeed.jiraactions.api.HttpTransport;
 import com.indeed.jiraactions.api.customfields.CustomFieldDefinition;
 
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.lang.StringUtils;
-import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
-import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.joda.time.DateMidnight;
 import org.joda.time.DateTime;
 import org.joda.time.Days;
 
+import javax.annotation.Nullable;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.HashMap;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 public class TsvFileWriter {
     private static final Logger log = LoggerFactory.getLogger(TsvFileWriter.class);
 
+    /** Batches of rows waiting for each writer thread, beyond which building actions waits for the writing. */
+    private static final int QUEUED_BATCHES = 64;
+
     private final JiraActionsIndexBuilderConfig config;
-    private final Map<DateMidnight, WriterData> writerDataMap;
+    private final HttpTransport httpTransport;
+    /** {@link JiraActionsUtil#toEpochDay Day} of the start date, where {@link #writerData} starts. */
+    private final long firstDay;
+    /** By day since {@link #firstDay}. */
+    private final WriterData[] writerData;
     private final List<TSVColumnSpec> columnSpecs;
-
-    public TsvFileWriter(final JiraActionsIndexBuilderConfig config, final List<String> linkTypes) {
+    /** Each writes the days whose index leaves its index as the remainder. */
+    private final DayWriter[] dayWriters;
+    /** One per day writer, or none to write on the calling thread. */
+    @Nullable
+    private final ExecutorService[] executors;
+    private final AtomicReference<IOException> failure = new AtomicReference<>();
+
+    public TsvFileWriter(final JiraActionsIndexBuilderConfig config, final HttpTransport httpTransport,
+                         final List<String> linkTypes) {
         this.config = config;
-        final int days = Days.daysBetween(JiraActionsUtil.parseDateTime(config.getStartDate()),
-                JiraActionsUtil.parseDateTime(config.getEndDate())).getDays();
-        writerDataMap = new HashMap<>(days);
-        this.columnSpecs = createColumnSpecs(linkTypes);
+        this.httpTransport = httpTransport;
+        final DateTime startDate = JiraActionsUtil.parseDateTime(config.getStartDate());
+        final DateTime endDate = JiraActionsUtil.parseDateTime(config.getEndDate());
+        firstDay = JiraActionsUtil.toEpochDay(startDate.getMillis());
+        final int days = Math.max(0, Days.daysBetween(startDate, endDate).getDays()) + 1;
+        writerData = new WriterData[days];
+        this.columnSpecs = createColumnSpecs(linkTypes, config.getCustomFields());
+
+        final int threads = Math.max(1, Math.min(config.getWriterThreads(), days));
+        dayWriters = new DayWriter[threads];
+        for (int i = 0; i < threads; i++) {
+            dayWriters[i] = new DayWriter(new TsvRowEncoder(columnSpecs));
+        }
+        if (threads > 1) {
+            final ThreadFactory threadFactory = new ThreadFactoryBuilder()
+                    .setNameFormat("tsv-writer-%d")
+                    .setDaemon(true)
+                    .build();
+            executors = new ExecutorService[threads];
+            for (int i = 0; i < threads; i++) {
+                executors[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(QUEUED_BATCHES), threadFactory, TsvFileWriter::waitForRoom);
+            }
+        } else {
+            executors = null;
+        }
+    }
+
+    /** Blocks rather than rejecting, so that a full queue holds up building actions instead of losing rows. */
+    private static void waitForRoom(final Runnable task, final ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("Writer is closed");
+        }
+        try {
+            executor.getQueue().put(task);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted waiting to write", e);
+        }
     }
 
     private static final String FILENAME_DATE_TIME_PATTERN = "yyyyMMdd";
@@ -52,7 +119,9 @@ public class TsvFileWriter {
         }
     }
 
-    private List<TSVColumnSpec> createColumnSpecs(final List<String> linkTypes) {
+    @VisibleForTesting
+    static List<TSVColumnSpec> createColumnSpecs(final List<String> linkTypes,
+                                                 final CustomFieldDefinition[] customFields) {
         final TSVSpecBuilder specBuilder = new TSVSpecBuilder();
         specBuilder
                 .addColumn("issuekey", Action::getIssuekey)
@@ -79,23 +148,81 @@ public class TsvFileWriter {
                 .addColumn("summary", Action::getSummary)
                 .addLongColumn("timeinstate", Action::getTimeinstate)
                 .addLongColumn("timesinceaction", Action::getTimesinceaction)
-                .addTimeColumn("time", Action::getTimestamp)
+                .addTimeMillisColumn("time", Action::getTimestampMillis)
                 .addLinkColumns(linkTypes);
 
-        for (final CustomFieldDefinition customField : config.getCustomFields()) {
+        for (final CustomFieldDefinition customField : customFields) {
             specBuilder.addCustomFieldColumns(customField);
         }
         return specBuilder.build();
     }
 
-    private void createFileAndWriteHeaders(final DateTime day) throws IOException {
-        final String filename = String.format("%s_%s.tsv", config.getIndexName(), reformatDate(day));
-        final File file = new File(filename);
-        if (StringUtils.isNotEmpty(config.getIuploadURL())) {
-            file.deleteOnExit();
-        } else {
-            log.info("Not deleting tsv file because upload url is unset.");
+    /**
+     * Picks up the files of a run being resumed, cut back to what they held at the checkpoint. Files it had already
+     * uploaded are left out.
+     */
+    public void reopenFiles(final Checkpoint checkpoint) throws IOException {
+        final DateTime endDate = JiraActionsUtil.parseDateTime(config.getEndDate());
+        for(DateTime date = JiraActionsUtil.parseDateTime(config.getStartDate()); date.isBefore(endDate); date = date.plusDays(1)) {
+            final File file = getFile(date);
+            if (checkpoint.uploadedFiles.contains(file.getName())) {
+                continue;
+            }
+            final Long length = checkpoint.fileLengths.get(file.getName());
+            if (length == null || !file.exists()) {
+                if (checkpoint.processed) {
+                    // Its pages won't be fetched again, so starting it over would upload it without them
+                    throw new IOException(file + " is missing, and the run it's from had already written it.");
+                }
+                log.warn("{} is missing, starting it over.", file);
+                createFileAndWriteHeaders(date);
+                continue;
+            }
+
+            try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                channel.truncate(length);
+            }
+            final WriterData writerData = new WriterData(file, new BufferedWriter(new FileWriter(file, true)));
+            if (checkpoint.writtenFiles.contains(file.getName())) {
+                writerData.setWritten();
+            }
+            setWriterData(date, writerData);
         }
+    }
+
+    /** Bytes flushed to each file so far, by file name. Only complete after {@link #sync()}. */
+    public Map<String, Long> getFileLengths() {
+        return writerData().collect(Collectors.toMap(wd -> wd.getFile().getName(), wd -> wd.getFile().length()));
+    }
+
+    /** Only complete after {@link #sync()}. */
+    public Set<String> getWrittenFiles() {
+        return writerData()
+                .filter(WriterData::isWritten)
+                .map(wd -> wd.getFile().getName())
+                .collect(Collectors.toSet());
+    }
+
+    private Stream<WriterData> writerData() {
+        return Arrays.stream(writerData).filter(Objects::nonNull);
+    }
+
+    private void setWriterData(final DateTime day, final WriterData data) {
+        writerData[(int) (JiraActionsUtil.toEpochDay(day.getMillis()) - firstDay)] = data;
+    }
+
+    private File getFile(final DateTime day) {
+        final File file = new File(String.format("%s_%s.tsv", config.getIndexName(), reformatDate(day)));
+        if (StringUtils.isEmpty(config.getIuploadURL())) {
+            log.info("Not deleting tsv file because upload url is unset.");
+        } else if (StringUtils.isEmpty(config.getCheckpointFile())) {
+            file.deleteOnExit();
+        } // else a failed run needs them to resume, so they're deleted once they're uploaded
+        return file;
+    }
+
+    private void createFileAndWriteHeaders(final DateTime day) throws IOException {
+        final File file = getFile(day);
 
         final BufferedWriter bw = new BufferedWriter(new FileWriter(file));
 
@@ -108,45 +235,165 @@ public class TsvFileWriter {
         bw.newLine();
         bw.flush();
 
-        writerDataMap.put(day.toDateMidnight(), new WriterData(file, bw));
+        setWriterData(day, new WriterData(file, bw));
     }
 
+    /**
+     * Writes each action to the file for its day. With more than one writer thread this only hands them over, so
+     * what's written is only on disk after {@link #sync()}, and a failure to write shows up on a later call.
+     */
     public void writeActions(final List<Action> actions) throws IOException {
+        throwFailure();
         if(actions.isEmpty()) {
             return;
         }
 
+        if (executors == null) {
+            dayWriters[0].write(actions, writerDataFor(actions));
+            return;
+        }
+
+        final List<List<Action>> actionsByWriter = new ArrayList<>(dayWriters.length);
+        final List<List<WriterData>> writerDataByWriter = new ArrayList<>(dayWriters.length);
+        for (int i = 0; i < dayWriters.length; i++) {
+            actionsByWriter.add(new ArrayList<>());
+            writerDataByWriter.add(new ArrayList<>());
+        }
         for (final Action action : actions) {
-            final WriterData writerData = writerDataMap.get(action.getTimestamp().toDateMidnight());
-            final BufferedWriter bw = writerData.getBufferedWriter();
-            writerData.setWritten();
-            writerData.setDirty(true);
-            final String line = columnSpecs.stream()
-                    .map(columnSpec -> columnSpec.getActionExtractor().apply(action))
-                    .map(rawValue -> rawValue.replace("\t", "\\t"))
-                    .map(rawValue -> rawValue.replace("\n", "\\n"))
-                    .map(rawValue -> rawValue.replace("\r", "\\r"))
-                    .collect(Collectors.joining("\t"));
-            bw.write(line);
-            bw.newLine();
-        }
-
-        writerDataMap.values().stream()
-                .filter(WriterData::isDirty).forEach(x -> {
+            final int day = getDay(action);
+            actionsByWriter.get(day % dayWriters.length).add(action);
+            writerDataByWriter.get(day % dayWriters.length).add(writerData[day]);
+        }
+        for (int i = 0; i < dayWriters.length; i++) {
+            if (actionsByWriter.get(i).isEmpty()) {
+                continue;
+            }
+            final DayWriter dayWriter = dayWriters[i];
+            final List<Action> batch = actionsByWriter.get(i);
+            final List<WriterData> batchWriterData = writerDataByWriter.get(i);
+            executors[i].execute(() -> {
+                try {
+                    dayWriter.write(batch, batchWriterData);
+                } catch (final Exception e) {
+                    // Anything else would only end the thread, and the rows would be missing without a word
+                    log.error("Failed to write actions.", e);
+                    failure.compareAndSet(null, e instanceof IOException ? (IOException) e : new IOException(e));
+                }
+            });
+        }
+    }
+
+    /** Waits for everything handed to {@link #writeActions} so far to be written and flushed. */
+    public void sync() throws IOException {
+        if (executors != null) {
             try {
-                x.getBufferedWriter().flush();
-                x.setDirty(false);
-            } catch (final IOException e) {
-                log.error("Failed to flush.", e);
+                for (final ExecutorService executor : executors) {
+                    executor.submit(() -> { }).get();
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for the TSVs to be written");
+            } catch (final ExecutionException e) {
+                throw new IOException("Failed waiting for the TSVs to be written", e.getCause());
             }
-        });
+        }
+        throwFailure();
+    }
+
+    private void throwFailure() throws IOException {
+        // Kept, since the files are missing rows from then on
+        final IOException e = failure.get();
+        if (e != null) {
+            throw new IOException("Failed to write actions", e);
+        }
+    }
+
+    private List<WriterData> writerDataFor(final List<Action> actions) {
+        final List<WriterData> data = new ArrayList<>(actions.size());
+        for (final Action action : actions) {
+            data.add(writerData[getDay(action)]);
+        }
+        return data;
+    }
+
+    /** Index of the action's day in {@link #writerData}, which must have its file. */
+    private int getDay(final Action action) {
+        final long day = JiraActionsUtil.toEpochDay(action.getTimestampMillis()) - firstDay;
+        if (day < 0 || day >= writerData.length || writerData[(int) day] == null) {
+            throw new IllegalArgumentException("No TSV for " + action.getIssuekey() + "'s action at "
+                    + action.getTimestamp() + ", outside of " + config.getStartDate() + " to " + config.getEndDate());
+        }
+        return (int) day;
+    }
+
+    /**
+     * Writes the rows for its share of the days, each row to its day's file, flushing the files it touched at the end
+     * of each batch. Only ever used by one thread at a time.
+     */
+    private static class DayWriter {
+        private final TsvRowEncoder rowEncoder;
+
+        private DayWriter(final TsvRowEncoder rowEncoder) {
+            this.rowEncoder = rowEncoder;
+        }
+
+        private void write(final List<Action> actions, final List<WriterData> writerData) throws IOException {
+            for (int i = 0; i < actions.size(); i++) {
+                final WriterData data = writerData.get(i);
+                final BufferedWriter bw = data.getBufferedWriter();
+                data.setWritten();
+                data.setDirty(true);
+                rowEncoder.write(actions.get(i), bw);
+                bw.newLine();
+            }
+
+            for (final WriterData data : writerData) {
+                if (data.isDirty()) {
+                    try {
+                        data.getBufferedWriter().flush();
+                        data.setDirty(false);
+                    } catch (final IOException e) {
+                        log.error("Failed to flush.", e);
+                    }
+                }
+            }
+        }
     }
 
     private static final int NUM_RETRIES = 5;
-    public void uploadTsvFile() {
+
+    /** Told about each file once it's uploaded, or found to have nothing to upload, and before it's deleted. */
+    @FunctionalInterface
+    public interface UploadListener {
+        void uploaded(String fileName) throws IOException;
+    }
+
+    public boolean uploadTsvFile() throws IOException {
+        return uploadTsvFile(fileName -> { });
+    }
+
+    /**
+     * Finishes the files and uploads the ones with rows. With a checkpoint file each is deleted once it's uploaded,
+     * otherwise they're deleted on exit.
+     *
+     * @return whether every file was uploaded; the ones that weren't are left for a resume to try again
+     * @throws IOException if any rows failed to be written, before anything is uploaded
+     */
+    public boolean uploadTsvFile(final UploadListener listener) throws IOException {
+        try {
+            // Nothing's uploaded unless every row made it into the files
+            sync();
+        } finally {
+            if (executors != null) {
+                for (final ExecutorService executor : executors) {
+                    executor.shutdown();
+                }
+            }
+        }
+
         if (StringUtils.isEmpty(config.getIuploadURL())) {
             log.info("Skipping upload because iuploadurl is empty.");
-            return;
+            return true;
         }
 
         final String iuploadUrl = String.format("%s/%s/file/", config.getIuploadURL(), config.getIndexName());
@@ -156,36 +403,50 @@ public class TsvFileWriter {
         final String userPass = config.getIuploadUsername() + ":" + config.getIuploadPassword();
         final String basicAuth = "Basic " + new String(new Base64().encode(userPass.getBytes()));
 
-        writerDataMap.values().forEach(wd -> {
+        boolean allUploaded = true;
+        for (final WriterData wd : writerData) {
+            if (wd == null) {
+                continue;
+            }
             try {
                 wd.getBufferedWriter().close();
             } catch (final IOException e) {
                 log.error("Failed to close " + wd.file.getName() + ".", e);
             }
 
-            if (wd.isWritten()) {
-                final File file = wd.getFile();
-                final HttpPost httpPost = new HttpPost(iuploadUrl);
-                httpPost.setHeader("Authorization", basicAuth);
-                httpPost.setEntity(MultipartEntityBuilder.create()
-                        .addBinaryBody("file", file, ContentType.MULTIPART_FORM_DATA, file.getName())
-                        .build());
+            if (wd.isWritten() && !upload(wd.getFile(), iuploadUrl, basicAuth)) {
+                allUploaded = false;
+                continue;
+            }
+            listener.uploaded(wd.getFile().getName());
+            if (StringUtils.isNotEmpty(config.getCheckpointFile()) && !wd.getFile().delete()) {
+                log.warn("Failed to delete " + wd.file.getName() + ".");
+            }
+        }
+        return allUploaded;
+    }
 
-                for(int i = 0; i < NUM_RETRIES; i++) {
-                    try {
-                        final HttpResponse response = HttpClientBuilder.create().build().execute(httpPost);
-                        log.info("Http response: " + response.getStatusLine().toString() + ": " + wd.file.getName() + ".");
-                        if(response.getStatusLine().getStatusCode() != 200) {
-                            continue;
-                        }
-                        return;
-                    } catch (final IOException e) {
-                        log.warn("Failed to upload file: " + wd.file.getName() + ".", e);
-                    }
+    private boolean upload(final File file, final String iuploadUrl, final String basicAuth) {
+        final HttpPost httpPost = new HttpPost(iuploadUrl);
+        httpPost.setHeader("Authorization", basicAuth);
+        httpPost.setEntity(MultipartEntityBuilder.create()
+                .addBinaryBody("file", file, ContentType.MULTIPART_FORM_DATA, file.getName())
+                .build());
+
+        for(int i = 0; i < NUM_RETRIES; i++) {
+            try (final CloseableHttpResponse response = httpTransport.execute(httpPost)) {
+                log.info("Http response: " + response.getStatusLine().toString() + ": " + file.getName() + ".");
+                EntityUtils.consume(response.getEntity());
+                if(response.getStatusLine().getStatusCode() != 200) {
+                    continue;
                 }
-                log.error("Retries expired, unable to upload file: " + wd.file.getName() + ".");
+                return true;
+            } catch (final IOException e) {
+                log.warn("Failed to upload file: " + file.getName() + ".", e);
             }
-        });
+        }
+        log.error("Retries expired, unable to upload file: " + file.getName() + ".");
+        return false;
     }
 
     private static class WriterData {
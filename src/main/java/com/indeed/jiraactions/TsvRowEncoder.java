@@ -0,0 +1,80 @@
+package com.indeed.jiraactions;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Encodes an action as one TSV row. Each value is escaped (tab, newline and carriage return) in the same pass that
+ * copies it into a buffer that is reused from row to row, so the only allocations per row are the extracted values
+ * themselves. Not thread-safe; use one per writer.
+ */
+class TsvRowEncoder {
+    private final Function<Action, String>[] extractors;
+    private char[] buffer = new char[1024];
+    private int length;
+
+    @SuppressWarnings("unchecked")
+    TsvRowEncoder(final List<TSVColumnSpec> columnSpecs) {
+        extractors = columnSpecs.stream()
+                .map(TSVColumnSpec::getActionExtractor)
+                .toArray(Function[]::new);
+    }
+
+    /**
+     * Writes the row for {@code action} to {@code writer}, without a line separator.
+     */
+    void write(final Action action, final Writer writer) throws IOException {
+        fill(action);
+        writer.write(buffer, 0, length);
+    }
+
+    String encode(final Action action) {
+        fill(action);
+        return new String(buffer, 0, length);
+    }
+
+    private void fill(final Action action) {
+        length = 0;
+        for (int i = 0; i < extractors.length; i++) {
+            if (i > 0) {
+                ensureCapacity(1);
+                buffer[length++] = '\t';
+            }
+            appendEscaped(extractors[i].apply(action));
+        }
+    }
+
+    private void appendEscaped(final String value) {
+        final int valueLength = value.length();
+        ensureCapacity(2 * valueLength); // Worst case, every character needs escaping
+        for (int i = 0; i < valueLength; i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '\t':
+                    buffer[length++] = '\\';
+                    buffer[length++] = 't';
+                    break;
+                case '\n':
+                    buffer[length++] = '\\';
+                    buffer[length++] = 'n';
+                    break;
+                case '\r':
+                    buffer[length++] = '\\';
+                    buffer[length++] = 'r';
+                    break;
+                default:
+                    buffer[length++] = c;
+            }
+        }
+    }
+
+    private void ensureCapacity(final int extra) {
+        if (length + extra > buffer.length) {
+            final char[] grown = new char[Math.max(buffer.length * 2, length + extra)];
+            System.arraycopy(buffer, 0, grown, 0, length);
+            buffer = grown;
+        }
+    }
+}
@@ -5,9 +5,16 @@ import com.indeed.util.core.nullsafety.ReturnValuesAreNonnullByDefault;
 
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
+import java.util.Collection;
 
 @ParametersAreNonnullByDefault
 @ReturnValuesAreNonnullByDefault
 public interface UserLookupService {
     User getUser(@Nullable final String key);
+
+    /**
+     * Hint that these keys are about to be asked for, so they can be resolved together ahead of time.
+     */
+    default void prefetch(final Collection<String> keys) {
+    }
 }
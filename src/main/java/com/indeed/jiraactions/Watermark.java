@@ -0,0 +1,44 @@
+package com.indeed.jiraactions;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * How far incremental runs have got: the last issue synced, and the last action written for every issue, so the
+ * next run only writes what's new.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Watermark {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /** Updated time and key of the last issue synced; null if nothing has been synced yet. */
+    public long updated;
+    public String issueKey;
+
+    /** Issue key to the time of the last action we've written for it. */
+    public Map<String, Long> lastActionTimes = new HashMap<>();
+
+    public static Watermark read(final Path file) throws IOException {
+        return objectMapper.readValue(file.toFile(), Watermark.class);
+    }
+
+    /**
+     * Replaces {@code file} atomically, so a run killed mid-write leaves the previous watermark behind.
+     */
+    public void write(final Path file) throws IOException {
+        final Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        final Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        objectMapper.writeValue(tmp.toFile(), this);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -1,79 +1,95 @@
 package com.indeed.jiraactions.api;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingInputStream;
 import com.indeed.jiraactions.JiraActionsIndexBuilderConfig;
 import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.io.input.TeeInputStream;
+import org.apache.commons.lang.StringUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.entity.DeflateInputStream;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.net.ssl.HttpsURLConnection;
-import java.io.BufferedReader;
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.net.URL;
-import java.util.List;
-import java.util.Map;
+import java.nio.file.Paths;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
 
 public class ApiCaller {
     protected final JiraActionsIndexBuilderConfig config;
 
     private static final Logger log = LoggerFactory.getLogger(ApiCaller.class);
     private static final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpTransport httpTransport;
     private final String authentication;
-    private String jsessionId = null;
-    private String upstream = null;
-    private String cookies = "";
     private String pinnedNode = null;
+    private final AtomicLong compressedBytes = new AtomicLong();
+    private final AtomicLong decompressedBytes = new AtomicLong();
+    @Nullable private final ResponseRecorder recorder;
 
-    public ApiCaller(final JiraActionsIndexBuilderConfig config) {
+    public ApiCaller(final JiraActionsIndexBuilderConfig config, final HttpTransport httpTransport) throws IOException {
         this.config = config;
+        this.httpTransport = httpTransport;
         this.authentication = getBasicAuth();
+        this.recorder = StringUtils.isEmpty(config.getRecordDirectory())
+                ? null
+                : new ResponseRecorder(Paths.get(config.getRecordDirectory()));
     }
 
     public JsonNode getJsonNode(final String url) throws IOException {
-        HttpsURLConnection urlConnection = null;
-        Map<String, List<String>> headers = null;
-        BufferedReader br = null;
-        String apiResults = null;
-        try {
-            urlConnection = getURLConnection(url);
-            headers = urlConnection.getRequestProperties();
-            final InputStream in = urlConnection.getInputStream();
-            br = new BufferedReader(new InputStreamReader(in));
-            apiResults = br.readLine();
+        return getParsed(url, parser -> objectMapper.readTree(parser));
+    }
 
-            final String anodeId = urlConnection.getHeaderField("X-ANODEID");
+    /**
+     * Streams the response body through {@code responseParser} instead of materializing it first, so large
+     * responses never have to be held as a String or a tree.
+     */
+    public <T> T getParsed(final String url, final ResponseParser<T> responseParser) throws IOException {
+        final HttpGet request = new HttpGet(url);
+        request.setHeader("Authorization", authentication);
+        request.setHeader("Accept-Encoding", "gzip, deflate");
 
-            if(!Objects.equals(pinnedNode, anodeId)) {
-                if(pinnedNode != null) {
-                    log.warn("Expected X-ANODEID={} but found {}", pinnedNode, anodeId);
-                }
-                final Map<String, List<String>> responseHeaders = urlConnection.getHeaderFields();
-                final List<String> cookies = responseHeaders.get("Set-Cookie");
-                if(cookies != null) {
-                    for (final String cookie : cookies) {
-                        if (cookie.startsWith("JSESSIONID=")) {
-                            final int start = "JSESSIONID=".length();
-                            final int end = cookie.contains(";") ? cookie.indexOf(";") : cookie.length();
-                            jsessionId = cookie.substring(start, end);
-                        } else if (cookie.startsWith("upstream")) {
-                            final int start = "upstream=".length();
-                            final int end = cookie.contains(";") ? cookie.indexOf(";") : cookie.length();
-                            upstream = cookie.substring(start, end);
-                        }
-                    }
-                    if (jsessionId != null || upstream != null) {
-                        setCookies();
-                        pinnedNode = anodeId;
-                        log.info("Set JSESSION={};upstream={}. Pinning to X-ANODEID={}",
-                                jsessionId, upstream, anodeId);
-                    }
+        CloseableHttpResponse response = null;
+        try {
+            response = httpTransport.execute(request);
+            final HttpEntity entity = response.getEntity();
+            if (response.getStatusLine().getStatusCode() >= 400) {
+                throw new IOException("Server returned " + response.getStatusLine() + " for URL: " + url);
+            }
+
+            final Header anodeId = response.getFirstHeader("X-ANODEID");
+            checkPinnedNode(anodeId == null ? null : anodeId.getValue());
+
+            final CountingInputStream compressed = new CountingInputStream(entity.getContent());
+            final CountingInputStream decompressed = new CountingInputStream(
+                    decode(compressed, entity.getContentEncoding()));
+            final ByteArrayOutputStream recording = recorder == null ? null : new ByteArrayOutputStream();
+            final InputStream in = recording == null ? decompressed : new TeeInputStream(decompressed, recording);
+            try (final JsonParser parser = objectMapper.getFactory().createParser(in)) {
+                final T parsed = responseParser.parse(parser);
+                // Read to the end so the counters are exact and the connection can go back to the pool.
+                ByteStreams.copy(in, ByteStreams.nullOutputStream());
+                if (recorder != null) {
+                    recorder.record(url, recording.toByteArray());
                 }
+                return parsed;
+            } finally {
+                decompressed.close();
+                compressedBytes.addAndGet(compressed.getCount());
+                decompressedBytes.addAndGet(decompressed.getCount());
             }
-            return objectMapper.readTree(apiResults);
         } catch (final IOException e) {
             final StringBuilder sb = new StringBuilder();
 
@@ -81,56 +97,46 @@ public class ApiCaller {
             sb.append("\"Request\": {");
 
             sb.append("\"URL\": \"").append(url).append("\",");
-            if (headers != null) {
-                sb.append("\"Headers\": {");
-                for (final Map.Entry<String, List<String>> header : headers.entrySet()) {
-                    final String key = header.getKey();
-                    final String value;
-                    if ("Authorization".equals(key)) {
-                        value = "<Omitted>";
-                    } else {
-                        value = String.join(",", header.getValue());
-                    }
-                    sb.append("\"").append(key).append("\": \"").append(value).append("\",");
+            sb.append("\"Headers\": {");
+            for (final Header header : request.getAllHeaders()) {
+                final String key = header.getName();
+                final String value;
+                if ("Authorization".equals(key)) {
+                    value = "<Omitted>";
+                } else {
+                    value = header.getValue();
                 }
+                sb.append("\"").append(key).append("\": \"").append(value).append("\",");
             }
             sb.append("}");
 
             sb.append("}");
 
-            if (urlConnection != null) {
+            if (response != null) {
                 sb.append(", \"Response\": {");
-                for (final Map.Entry<String, List<String>> header : urlConnection.getHeaderFields().entrySet()) {
-                    final String key = header.getKey();
+                for (final Header header : response.getAllHeaders()) {
+                    final String key = header.getName();
                     final String value;
                     if ("Set-Cookie".equals(key)) {
                         value = "<Omitted>";
                     } else {
-                        value = String.join(",", header.getValue());
+                        value = header.getValue();
                     }
                     sb.append("\"").append(key).append("\": \"").append(value).append("\",");
                 }
-                sb.append("\"Code\": ").append(urlConnection.getResponseCode()).append(",");
-                sb.append("\"Message\": \"").append(urlConnection.getResponseMessage()).append("\",");
-            }
-            if (apiResults != null) {
-                sb.append("\"Body\": \"").append(apiResults).append("\"");
-            }
-            if (urlConnection != null) {
-                final InputStream error = urlConnection.getErrorStream();
-                if(error != null) {
-                    final BufferedReader errorBr = new BufferedReader(new InputStreamReader(error));
+                sb.append("\"Code\": ").append(response.getStatusLine().getStatusCode()).append(",");
+                sb.append("\"Message\": \"").append(response.getStatusLine().getReasonPhrase()).append("\",");
+
+                final HttpEntity entity = response.getEntity();
+                if (entity != null && response.getStatusLine().getStatusCode() >= 400) {
                     sb.append("\"Error Body\": \"");
-                    String line = errorBr.readLine();
-                    while (line != null) {
-                        sb.append(line).append(System.lineSeparator());
-                        line = errorBr.readLine();
+                    try {
+                        sb.append(EntityUtils.toString(entity));
+                    } catch (final IOException ignored) {
+                        sb.append("Unable to read error body");
                     }
-                    errorBr.close();
-                } else {
-                    sb.append("Unable to open error stream for reading");
+                    sb.append("\"");
                 }
-                sb.append("\"");
             }
 
             sb.append("}");
@@ -138,38 +144,57 @@ public class ApiCaller {
             log.error("Encountered connection error: " + sb);
             throw e;
         } finally {
-            if (br != null) {
+            if (response != null) {
                 try {
-                    br.close();
+                    response.close();
                 } catch (final IOException ignored) {
                 }
             }
         }
     }
 
-    private HttpsURLConnection getURLConnection(final String urlString) throws IOException {
-        final URL url = new URL(urlString);
-        final HttpsURLConnection urlConnection = (HttpsURLConnection) url.openConnection();
-        urlConnection.setRequestProperty("Authorization", authentication);
-
-        if(cookies.length() > 0) {
-            urlConnection.setRequestProperty("Cookie", cookies);
+    private static InputStream decode(final InputStream in, @Nullable final Header contentEncoding) throws IOException {
+        if (contentEncoding == null) {
+            return in;
+        }
+        final String encoding = contentEncoding.getValue().trim();
+        if ("gzip".equalsIgnoreCase(encoding) || "x-gzip".equalsIgnoreCase(encoding)) {
+            return new GZIPInputStream(in);
+        } else if ("deflate".equalsIgnoreCase(encoding)) {
+            return new DeflateInputStream(in);
+        } else if ("identity".equalsIgnoreCase(encoding) || encoding.isEmpty()) {
+            return in;
         }
-        return urlConnection;
+        throw new IOException("Unsupported Content-Encoding: " + encoding);
     }
 
-    private void setCookies() {
-        final StringBuilder sb = new StringBuilder();
-        if(jsessionId != null) {
-            sb.append("JSESSIONID=").append(jsessionId);
-        }
-        if(upstream != null) {
-            if(sb.length() > 0) {
-                sb.append(";");
+    /** Response body bytes as received, before any gzip/deflate decoding. */
+    public long getCompressedBytes() {
+        return compressedBytes.get();
+    }
+
+    /** Response body bytes after gzip/deflate decoding. */
+    public long getDecompressedBytes() {
+        return decompressedBytes.get();
+    }
+
+    /**
+     * The load balancer hands out JSESSIONID/upstream cookies that pin us to a node; the transport's cookie store
+     * keeps sending them, so all we do here is notice when we get moved anyway.
+     */
+    private synchronized void checkPinnedNode(final String anodeId) {
+        if(!Objects.equals(pinnedNode, anodeId)) {
+            if(pinnedNode != null) {
+                log.warn("Expected X-ANODEID={} but found {}", pinnedNode, anodeId);
             }
-            sb.append("upstream=").append(upstream);
+            pinnedNode = anodeId;
+            log.info("Pinning to X-ANODEID={}", anodeId);
         }
-        cookies = sb.toString();
+    }
+
+    @FunctionalInterface
+    public interface ResponseParser<T> {
+        T parse(final JsonParser parser) throws IOException;
     }
 
     private String getBasicAuth() {
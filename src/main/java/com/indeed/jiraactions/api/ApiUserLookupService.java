@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.indeed.jiraactions.JiraActionsIndexBuilderConfig;
 import com.indeed.jiraactions.UserLookupService;
 import com.indeed.jiraactions.api.response.issue.User;
@@ -14,28 +15,62 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
-
-
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Each user is looked up at most once per run: the first caller for a key starts the lookup and everyone else waits
+ * on the same future. {@link #prefetch(Collection)} resolves a page worth of keys concurrently before any actions
+ * are built, so {@link #getUser(String)} usually doesn't have to wait at all.
+ */
 @ParametersAreNonnullByDefault
 @ReturnValuesAreNonnullByDefault
-public class ApiUserLookupService implements UserLookupService {
+public class ApiUserLookupService implements UserLookupService, Closeable {
     private static final Logger log = LoggerFactory.getLogger(ApiUserLookupService.class);
     private static final String API_BASE = "/rest/api/2/user";
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
-    private final ConcurrentHashMap<String, User> users = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<User>> users = new ConcurrentHashMap<>();
     private final ApiCaller apiCaller;
+    @Nullable private final UserCache userCache;
+    @Nullable private final ExecutorService executor;
     private final String baseUrl;
-    private long userLookupTime;
+    private final AtomicLong userLookupTime = new AtomicLong();
+    private final AtomicLong prefetchTime = new AtomicLong();
+    private final AtomicInteger numLookups = new AtomicInteger();
 
     public ApiUserLookupService(final JiraActionsIndexBuilderConfig config, final ApiCaller apiCaller) {
+        this(config, apiCaller, null);
+    }
+
+    public ApiUserLookupService(final JiraActionsIndexBuilderConfig config, final ApiCaller apiCaller,
+                                @Nullable final UserCache userCache) {
         this.apiCaller = apiCaller;
+        this.userCache = userCache;
 
         baseUrl = config.getJiraBaseURL() + API_BASE;
+
+        final int parallelism = config.getUserLookupParallelism();
+        if (parallelism > 1) {
+            executor = Executors.newFixedThreadPool(parallelism, new ThreadFactoryBuilder()
+                    .setNameFormat("jira-user-lookup-%d")
+                    .setDaemon(true)
+                    .build());
+        } else {
+            executor = null;
+        }
     }
 
     @Override
@@ -44,39 +79,125 @@ public class ApiUserLookupService implements UserLookupService {
             return User.NOBODY;
         }
 
-        if(!users.containsKey(key)) {
-            final User user = lookupUser(key);
-            users.put(key, user);
+        final CompletableFuture<User> future = resolve(key, null);
+        if (future.isDone()) {
+            return future.join();
+        }
+
+        final long start = System.currentTimeMillis();
+        try {
+            return future.join();
+        } finally {
+            userLookupTime.addAndGet(System.currentTimeMillis() - start);
+        }
+    }
+
+    @Override
+    public void prefetch(final Collection<String> keys) {
+        final long start = System.currentTimeMillis();
+        final CompletableFuture<?>[] futures = keys.stream()
+                .filter(StringUtils::isNotEmpty)
+                .map(key -> resolve(key, executor))
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (final CompletionException e) {
+            // getUser() will surface it for whoever actually needs that user.
+            log.warn("Failed to prefetch users.", e);
+        } finally {
+            prefetchTime.addAndGet(System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * @param executor where to run the lookup if this call is the one that starts it; null runs it inline
+     */
+    private CompletableFuture<User> resolve(final String key, @Nullable final ExecutorService executor) {
+        final CompletableFuture<User> existing = users.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        final CompletableFuture<User> future = new CompletableFuture<>();
+        final CompletableFuture<User> raced = users.putIfAbsent(key, future);
+        if (raced != null) {
+            return raced;
         }
 
-        return users.get(key);
+        final User cached = userCache == null ? null : userCache.get(key);
+        if (cached != null) {
+            future.complete(cached);
+        } else if (executor != null) {
+            try {
+                executor.execute(() -> complete(future, key));
+            } catch (final RejectedExecutionException e) {
+                // Everyone else for this key is already waiting on the future, so it has to be completed somewhere
+                complete(future, key);
+            }
+        } else {
+            complete(future, key);
+        }
+        return future;
+    }
+
+    private void complete(final CompletableFuture<User> future, final String key) {
+        try {
+            future.complete(lookupUser(key));
+        } catch (final RuntimeException e) {
+            future.completeExceptionally(e);
+        }
     }
 
     public int numLookups() {
-        return users.size();
+        return numLookups.get();
     }
 
     private String getApiUrlForUser(final String key) throws UnsupportedEncodingException {
         return baseUrl + "?expand=groups&key=" + URLEncoder.encode(key, "UTF-8");
     }
 
+    /**
+     * Time {@link #getUser(String)} callers spent blocked on lookups that were not already done, summed across callers.
+     */
     public long getUserLookupTotalTime() {
-        return userLookupTime;
+        return userLookupTime.get();
+    }
+
+    /**
+     * Time {@link #prefetch(Collection)} callers spent waiting for a page worth of lookups to finish.
+     */
+    public long getPrefetchTotalTime() {
+        return prefetchTime.get();
     }
 
     private User lookupUser(final String key) {
-        final long start = System.currentTimeMillis();
+        numLookups.incrementAndGet();
 
         try {
             final String url = getApiUrlForUser(key);
             final JsonNode json = apiCaller.getJsonNode(url);
-            return parseUser(json);
+            final User user = parseUser(json);
+            if (userCache != null) {
+                try {
+                    userCache.put(user);
+                } catch (final IOException e) {
+                    log.warn("Could not cache user " + key + ".", e);
+                }
+            }
+            return user;
         } catch(final IOException e) {
             log.error("Could not find user " + key + ". Using fallback.", e);
             return User.getFallbackUser(key);
-        } finally {
-            final long end = System.currentTimeMillis();
-            userLookupTime += (end - start);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+            // Lookups that never got to run would otherwise leave their callers waiting forever
+            final IllegalStateException closed = new IllegalStateException("User lookups are closed");
+            users.values().forEach(future -> future.completeExceptionally(closed));
         }
     }
 
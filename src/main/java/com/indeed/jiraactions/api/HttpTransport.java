@@ -0,0 +1,65 @@
+package com.indeed.jiraactions.api;
+
+import com.indeed.jiraactions.JiraActionsIndexBuilderConfig;
+import org.apache.http.client.CookieStore;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.impl.client.BasicCookieStore;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * One pooled, keep-alive HTTP client shared by everything that talks to JIRA or iupload, so we pay for the TLS
+ * handshake once per connection instead of once per call. Cookies (JSESSIONID, upstream) are kept in a shared
+ * store so we stay pinned to the same JIRA node. Content compression is left to the callers so they can see the
+ * bytes that actually went over the wire.
+ */
+public class HttpTransport implements Closeable {
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CookieStore cookieStore;
+    private final CloseableHttpClient client;
+
+    public HttpTransport(final JiraActionsIndexBuilderConfig config) {
+        final int maxPerRoute = Math.max(config.getHttpMaxConnectionsPerRoute(), 1);
+        connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setMaxTotal(maxPerRoute * 2); // JIRA and iupload
+
+        cookieStore = new BasicCookieStore();
+
+        final RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(config.getHttpConnectTimeoutMillis())
+                .setConnectionRequestTimeout(config.getHttpConnectTimeoutMillis())
+                .setSocketTimeout(config.getHttpReadTimeoutMillis())
+                .build();
+
+        client = HttpClientBuilder.create()
+                .setConnectionManager(connectionManager)
+                .setDefaultCookieStore(cookieStore)
+                .setDefaultRequestConfig(requestConfig)
+                .disableContentCompression()
+                .build();
+    }
+
+    /**
+     * The caller owns the response and must close it so the connection goes back to the pool.
+     */
+    public CloseableHttpResponse execute(final HttpUriRequest request) throws IOException {
+        return client.execute(request);
+    }
+
+    public CookieStore getCookieStore() {
+        return cookieStore;
+    }
+
+    @Override
+    public void close() throws IOException {
+        client.close();
+        connectionManager.shutdown();
+    }
+}
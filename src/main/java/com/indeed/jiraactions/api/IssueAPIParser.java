@@ -1,5 +1,9 @@
 package com.indeed.jiraactions.api;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.indeed.jiraactions.api.response.issue.Issue;
@@ -8,6 +12,8 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * @author soono on 8/30/16.
@@ -31,4 +37,56 @@ public class IssueAPIParser {
         }
         return issue;
     }
+
+    /**
+     * Binds a search response one issue at a time straight off the stream, so we never hold the raw body or a
+     * tree of the whole page. Issues that fail to bind are logged and skipped, just like {@link #getObject}.
+     */
+    public static SearchResponse parseSearchResponse(final JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a JSON object for the search response but got " + parser.getCurrentToken());
+        }
+
+        int total = -1;
+        int numReturned = 0;
+        final List<Issue> issues = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String name = parser.getCurrentName();
+            final JsonToken token = parser.nextToken();
+            if ("total".equals(name)) {
+                total = parser.getIntValue();
+            } else if ("issues".equals(name) && token == JsonToken.START_ARRAY) {
+                numReturned = readIssues(parser, issues);
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        return new SearchResponse(total, numReturned, issues);
+    }
+
+    private static int readIssues(final JsonParser parser, final List<Issue> issues) throws IOException {
+        final JsonStreamContext issuesContext = parser.getParsingContext();
+        int numRead = 0;
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            numRead++;
+            try {
+                final Issue issue = mapper.readValue(parser, Issue.class);
+                if (issue.fields.created == null) {
+                    log.warn("Invalid issue {} with no date.", issue.key);
+                } else {
+                    issues.add(issue);
+                }
+            } catch (final JsonMappingException e) {
+                log.error("Caught an error trying to parse an issue", e);
+                // Throw away whatever is left of the broken issue
+                while (parser.getParsingContext() != issuesContext) {
+                    if (parser.nextToken() == null) {
+                        throw new IOException("Unexpected end of input while skipping a broken issue", e);
+                    }
+                }
+            }
+        }
+        return numRead;
+    }
 }
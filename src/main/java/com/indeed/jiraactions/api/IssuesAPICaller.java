@@ -2,8 +2,11 @@ package com.indeed.jiraactions.api;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.indeed.jiraactions.JiraActionsIndexBuilderConfig;
 import com.indeed.jiraactions.JiraActionsUtil;
+import com.indeed.jiraactions.api.response.issue.Issue;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,10 +15,22 @@ import org.joda.time.DateTimeZone;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -30,57 +45,171 @@ public class IssuesAPICaller {
     private final JiraActionsIndexBuilderConfig config;
 
     // For Pagination
-    private final int maxPerPage; // Max number of issues per page
-    private int batchSize;
     private int start = 0; // Current Page
-    private int numTotal = -1; // Total number of issues remaining
-
-    private int backoff = 10_000;
+    private volatile int numTotal = -1; // Total number of issues remaining
+
+    /** For fetching on the calling thread. */
+    private final Pacing pacing;
+
+    // For prefetching; pages are always handed out in the order they were scheduled
+    private final int parallelism;
+    /** One per prefetch worker, each with its own {@link #workerPacing}, or none to fetch on the calling thread. */
+    @Nullable
+    private final ExecutorService[] executors;
+    @Nullable
+    private final Pacing[] workerPacing;
+    private final Deque<PendingPage> pendingPages = new ArrayDeque<>();
+    private int nextScheduledStart = 0;
+    private int nextWorker = 0;
 
     public IssuesAPICaller(final JiraActionsIndexBuilderConfig config, final ApiCaller apiCaller) throws UnsupportedEncodingException {
         this.config = config;
         this.apiCaller = apiCaller;
 
-        maxPerPage = config.getJiraBatchSize()*2;
-        batchSize = config.getJiraBatchSize();
+        pacing = new Pacing(config);
 
         urlBase = getIssuesUrlBase();
+
+        parallelism = config.getJiraParallelism();
+        if (parallelism > 1) {
+            final ThreadFactory threadFactory = new ThreadFactoryBuilder()
+                    .setNameFormat("jira-prefetch-%d")
+                    .setDaemon(true)
+                    .build();
+            executors = new ExecutorService[parallelism];
+            workerPacing = new Pacing[parallelism];
+            for (int i = 0; i < parallelism; i++) {
+                executors[i] = Executors.newSingleThreadExecutor(threadFactory);
+                workerPacing[i] = new Pacing(config);
+            }
+        } else {
+            executors = null;
+            workerPacing = null;
+        }
+    }
+
+    public List<Issue> getIssuesWithBackoff() throws InterruptedException {
+        if (executors != null) {
+            return getPrefetchedIssues();
+        }
+
+        final int pageStart = start;
+        final int count = pacing.getBatchSize();
+        logProgress();
+        final List<Issue> issues = getIssuesWithBackoff(urlBase, pageStart, count, pacing);
+        start = pageStart + count;
+        return issues;
+    }
+
+    /**
+     * Fetches the {@code count} issues starting at {@code pageStart} of those updated at or after {@code since},
+     * oldest update first. This is how incremental runs page through only what changed since the last run; JIRA
+     * only takes minutes in JQL dates, so the first few may have been updated a little before {@code since}.
+     */
+    public List<Issue> getIssuesUpdatedSince(final DateTime since, final int pageStart, final int count)
+            throws InterruptedException, UnsupportedEncodingException {
+        final String updatedSince = JIRA_TIME_FORMAT.print(since.toDateTime(JIRA_TIME_ZONE));
+        final String incrementalUrlBase = config.getJiraBaseURL() + API_PATH + "?" +
+                getJQLParam(updatedSince, "ASC") +
+                "&" +
+                getFieldsParam() +
+                "&" +
+                getExpandParam();
+        return getIssuesWithBackoff(incrementalUrlBase, pageStart, count, pacing);
     }
 
-    public JsonNode getIssuesNodeWithBackoff() throws InterruptedException {
+    /**
+     * Fetches the {@code count} issues starting at {@code pageStart}. If we get rate limited, we back off and
+     * fetch whatever is left of the range in smaller batches, so the caller always gets the whole range back.
+     *
+     * @param pacing of whichever thread is fetching, which only slows down for its own failures
+     */
+    private List<Issue> getIssuesWithBackoff(final String urlBase, final int pageStart, final int count,
+                                             final Pacing pacing) throws InterruptedException {
+        final List<Issue> issues = new ArrayList<>(count);
+        int offset = pageStart;
+        int remaining = count;
+        int requestSize = count;
         int tries = 0;
-        while (true) {
+        while (remaining > 0) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException(); // Cancelled prefetch, nobody wants the rest of the range
+            }
             final long start = System.currentTimeMillis();
             try {
                 tries++;
-                final JsonNode node = getIssuesNode();
-                backoff = Math.max(backoff / 2, 10_000);
-                batchSize = Math.min(batchSize + 2, maxPerPage);
-                return node;
+                final int size = Math.min(requestSize, remaining);
+                final SearchResponse response = getIssues(urlBase, offset, size);
+                issues.addAll(response.getIssues());
+                pacing.onSuccess();
+                if (response.getNumReturned() == 0) {
+                    break; // Ran off the end of the results
+                }
+                offset += response.getNumReturned();
+                remaining -= response.getNumReturned();
+                tries = 0;
             } catch (final IOException e) {
                 final long end = System.currentTimeMillis();
                 log.error("On try {}/5, caught IOException getting {} issues, after {} milliseconds.",
-                        tries, batchSize, end - start);
+                        tries, requestSize, end - start);
 
                 if(tries >= 5) {
                     log.error("Tried too many times to get issues and failed, aborting.", e);
                     throw new RuntimeException(e);
                 }
 
-                batchSize = Math.max(batchSize - (int)(batchSize*(float)0.9), 1);
-                log.warn("Caught exception when trying to get issues, backing off for " + backoff + " milliseconds" +
-                        " and trying again with batchSize = " + batchSize, e);
-                Thread.sleep(backoff);
-                backoff *= 2;
+                requestSize = Math.max(requestSize - (int)(requestSize*(float)0.9), 1);
+                final int sleep = pacing.onFailure();
+                log.warn("Caught exception when trying to get issues, backing off for " + sleep + " milliseconds" +
+                        " and trying again with batchSize = " + requestSize, e);
+                Thread.sleep(sleep);
             }
         }
+        return issues;
+    }
+
+    private List<Issue> getPrefetchedIssues() throws InterruptedException {
+        fillPipeline();
+        final PendingPage page = pendingPages.poll();
+        if (page == null) {
+            return Collections.emptyList();
+        }
+
+        final List<Issue> issues;
+        try {
+            issues = page.future.get();
+        } catch (final ExecutionException e) {
+            Throwables.propagateIfPossible(e.getCause(), InterruptedException.class);
+            throw new RuntimeException(e.getCause());
+        }
+
+        start = page.start + page.count;
+        logProgress();
+        fillPipeline();
+        return issues;
+    }
+
+    private void fillPipeline() {
+        while (pendingPages.size() < parallelism && nextScheduledStart < numTotal) {
+            final int pageStart = nextScheduledStart;
+            final int worker = nextWorker;
+            nextWorker = (nextWorker + 1) % parallelism;
+            final Pacing pacing = workerPacing[worker];
+            final int count = pacing.getBatchSize();
+            nextScheduledStart += count;
+
+            final Future<List<Issue>> future = executors[worker].submit(
+                    () -> getIssuesWithBackoff(urlBase, pageStart, count, pacing));
+            pendingPages.add(new PendingPage(pageStart, count, future));
+        }
     }
 
-    private JsonNode getIssuesNode() throws IOException {
-        final JsonNode apiRes = apiCaller.getJsonNode(getIssuesURL());
-        setNextPage();
-        this.numTotal = apiRes.get("total").intValue();
-        return apiRes.get("issues");
+    private SearchResponse getIssues(final String urlBase, final int pageStart, final int count)
+            throws IOException {
+        final SearchResponse response = apiCaller.getParsed(getIssuesURL(urlBase, pageStart, count),
+                IssueAPIParser::parseSearchResponse);
+        this.numTotal = response.getTotal();
+        return response;
     }
 
     public int setNumTotal() throws IOException {
@@ -95,39 +224,70 @@ public class IssuesAPICaller {
         return start < numTotal;
     }
 
-    private void setNextPage() {
-        start += batchSize;
+    public void reset() {
+        seek(0);
     }
 
-    public void reset() {
-        start = 0;
+    /** Where the next page handed out starts. */
+    public int getStartAt() {
+        return start;
+    }
+
+    /** Continue from {@code startAt}, dropping any pages already prefetched. */
+    public void seek(final int startAt) {
+        start = startAt;
+        nextScheduledStart = startAt;
+        for (final PendingPage page : pendingPages) {
+            page.future.cancel(true);
+        }
+        pendingPages.clear();
+    }
+
+    public void close() {
+        reset();
+        if (executors != null) {
+            for (final ExecutorService executor : executors) {
+                executor.shutdownNow();
+            }
+            try {
+                // Let requests already on the wire finish before the caller closes the connections under them
+                for (final ExecutorService executor : executors) {
+                    executor.awaitTermination(config.getHttpReadTimeoutMillis(), TimeUnit.MILLISECONDS);
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
     }
 
     private String getIssuesUrlBase() throws UnsupportedEncodingException {
         return config.getJiraBaseURL() + API_PATH + "?" +
-                getJQLParam() +
+                getJQLParam(getDateStringInJiraTime(config.getStartDate()), "DESC") +
                 "&" +
                 getFieldsParam() +
                 "&" +
                 getExpandParam();
     }
 
-    private String getIssuesURL() {
+    private String getIssuesURL(final String urlBase, final int pageStart, final int count) {
         final String url = urlBase
-                + "&" + getMaxResults()
-                + "&" + getStartAtParam();
+                + "&" + getMaxResults(count)
+                + "&" + getStartAtParam(pageStart);
 
         if(log.isDebugEnabled()) {
             log.debug("Trying URL: {}", url);
         }
-        log.info("{}% complete, {}/{}", (float)start*100/numTotal, start, numTotal);
 
         return url;
     }
 
+    private void logProgress() {
+        log.info("{}% complete, {}/{}", (float)start*100/numTotal, start, numTotal);
+    }
+
     private String getBasicInfoURL() throws UnsupportedEncodingException {
         final String url = config.getJiraBaseURL() + API_PATH + "?" +
-                getJQLParam() +
+                getJQLParam(getDateStringInJiraTime(config.getStartDate()), "DESC") +
                 "&maxResults=0";
         return url;
     }
@@ -146,7 +306,10 @@ public class IssuesAPICaller {
         return JIRA_TIME_FORMAT.print(adjusted);
     }
 
-    private String getJQLParam() throws UnsupportedEncodingException {
+    /**
+     * @param order DESC for full runs, which page from the most recently updated; ASC for incremental ones
+     */
+    private String getJQLParam(final String updatedSince, final String order) throws UnsupportedEncodingException {
         final StringBuilder query = new StringBuilder();
 
         /* We want to get everything that existed between our start and end dates, and we'll filter out individual
@@ -155,9 +318,8 @@ public class IssuesAPICaller {
          * that were created after we started).
          */
 
-        final String start = getDateStringInJiraTime(config.getStartDate());
         final String end = getDateStringInJiraTime(config.getEndDate());
-        query.append("updatedDate>=\"").append(start)
+        query.append("updatedDate>=\"").append(updatedSince)
                 .append("\" AND createdDate<\"").append(end).append("\"");
 
         if(!StringUtils.isEmpty(config.getJiraProject())) {
@@ -168,7 +330,8 @@ public class IssuesAPICaller {
             query.append(" AND project NOT IN (").append(config.getExcludedJiraProject()).append(")");
         }
 
-        query.append(" ORDER BY updatedDate DESC, issuekey DESC"); // seems like updatedDate isn't quite repeatable
+        // seems like updatedDate isn't quite repeatable
+        query.append(" ORDER BY updatedDate ").append(order).append(", issuekey ").append(order);
 
         return "jql=" + URLEncoder.encode(query.toString(), "UTF-8");
     }
@@ -187,11 +350,63 @@ public class IssuesAPICaller {
         return String.format("expand=%s", config.getJiraExpand());
     }
 
-    private String getStartAtParam() {
-        return String.format("startAt=%d", start);
+    private String getStartAtParam(final int pageStart) {
+        return String.format("startAt=%d", pageStart);
+    }
+
+    private String getMaxResults(final int count) {
+        return String.format("maxResults=%d", count);
+    }
+
+    /**
+     * How big a batch to ask for and how long to back off, which grow and shrink with how requests have been going.
+     * Each prefetch worker has its own, so that workers failing together during the same outage don't each shrink
+     * and back off everyone else's.
+     */
+    @VisibleForTesting
+    static class Pacing {
+        private final int maxPerPage; // Max number of issues per page
+        private final int initialBackoff;
+        private int batchSize;
+        private int backoff;
+
+        Pacing(final JiraActionsIndexBuilderConfig config) {
+            maxPerPage = config.getJiraBatchSize()*2;
+            batchSize = config.getJiraBatchSize();
+            initialBackoff = config.getJiraBackoffMillis();
+            backoff = initialBackoff;
+        }
+
+        /** Read when scheduling a page for the worker, while the worker may be updating it. */
+        synchronized int getBatchSize() {
+            return batchSize;
+        }
+
+        synchronized void onSuccess() {
+            backoff = Math.max(backoff / 2, initialBackoff);
+            batchSize = Math.min(batchSize + 2, maxPerPage);
+        }
+
+        /**
+         * @return How long to back off before trying again
+         */
+        synchronized int onFailure() {
+            final int sleep = backoff;
+            batchSize = Math.max(batchSize - (int)(batchSize*(float)0.9), 1);
+            backoff *= 2;
+            return sleep;
+        }
     }
 
-    private String getMaxResults() {
-        return String.format("maxResults=%d", batchSize);
+    private static class PendingPage {
+        private final int start;
+        private final int count;
+        private final Future<List<Issue>> future;
+
+        private PendingPage(final int start, final int count, final Future<List<Issue>> future) {
+            this.start = start;
+            this.count = count;
+            this.future = future;
+        }
     }
 }
@@ -0,0 +1,43 @@
+package com.indeed.jiraactions.api;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Saves every JIRA response body to {@code directory} as {@code <n>.json}, and lists them with the URL they came from
+ * in {@code index.tsv}, so a run can be replayed offline against the fixture server in the tests. Recording into a
+ * directory that already has a recording adds to it.
+ */
+public class ResponseRecorder {
+    private static final Logger log = LoggerFactory.getLogger(ResponseRecorder.class);
+    public static final String INDEX_FILE = "index.tsv";
+
+    private final Path directory;
+    private int numRecorded;
+
+    public ResponseRecorder(final Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        final Path index = directory.resolve(INDEX_FILE);
+        // Numbered on from what's there, so nothing already recorded is overwritten
+        numRecorded = Files.exists(index) ? Files.readAllLines(index, StandardCharsets.UTF_8).size() : 0;
+        log.info("Recording JIRA responses to {}.", directory);
+    }
+
+    public synchronized void record(final String url, final byte[] body) throws IOException {
+        final String filename = String.format("%06d.json", numRecorded++);
+        Files.write(directory.resolve(filename), body);
+        try (final BufferedWriter index = Files.newBufferedWriter(directory.resolve(INDEX_FILE), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            index.write(filename + "\t" + url);
+            index.newLine();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.indeed.jiraactions.api;
+
+import com.indeed.jiraactions.api.response.issue.Issue;
+
+import java.util.List;
+
+/**
+ * The parts of a /rest/api/2/search response we care about.
+ */
+public class SearchResponse {
+    private final int total;
+    private final int numReturned;
+    private final List<Issue> issues;
+
+    public SearchResponse(final int total, final int numReturned, final List<Issue> issues) {
+        this.total = total;
+        this.numReturned = numReturned;
+        this.issues = issues;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * How many issues JIRA sent back, including any we had to throw away because they couldn't be parsed.
+     */
+    public int getNumReturned() {
+        return numReturned;
+    }
+
+    public List<Issue> getIssues() {
+        return issues;
+    }
+}
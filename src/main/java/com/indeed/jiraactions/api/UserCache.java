@@ -0,0 +1,248 @@
+package com.indeed.jiraactions.api;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.annotations.VisibleForTesting;
+import com.indeed.jiraactions.api.response.issue.ImmutableUser;
+import com.indeed.jiraactions.api.response.issue.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Users looked up from JIRA, kept on disk between runs as an append-only file of JSON lines. The last line for a key
+ * wins, and entries older than the TTL are treated as missing so they get fetched again. The file is compacted on
+ * load once stale lines outnumber live ones.
+ *
+ * New users are appended in batches, and the rest on {@link #close()}, so a run that's killed only loses the users
+ * it looked up since the last batch.
+ *
+ * Several builders may share one file. Each takes a lock on a sibling {@code .lock} file before loading, compacting or
+ * appending, and opens the file afresh for every append, so nothing is written to a file a compaction has replaced.
+ */
+public class UserCache implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(UserCache.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    /** Users put before they're appended, so the lock is taken once per batch rather than once per user. */
+    private static final int APPEND_EVERY = 64;
+
+    private final Path file;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final Path lockFile;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final StringBuilder pending = new StringBuilder();
+    private int numPending = 0;
+
+    public UserCache(final Path file, final long ttlMillis) throws IOException {
+        this(file, ttlMillis, System::currentTimeMillis);
+    }
+
+    @VisibleForTesting
+    UserCache(final Path file, final long ttlMillis, final LongSupplier clock) throws IOException {
+        this.file = file;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        final Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.lockFile = file.resolveSibling(file.getFileName() + ".lock");
+
+        withLock(() -> {
+            final int lines = load();
+            entries.values().removeIf(this::isExpired);
+            log.info("Loaded {} cached users from {}.", entries.size(), file);
+            if (lines > 2 * entries.size()) {
+                compact();
+            }
+        });
+    }
+
+    /**
+     * @return the cached user, or null if we have never seen the key or the entry has expired
+     */
+    @Nullable
+    public User get(final String key) {
+        final Entry entry = entries.get(key);
+        if (entry == null || isExpired(entry)) {
+            return null;
+        }
+        return ImmutableUser.builder()
+                .key(entry.key)
+                .name(entry.name)
+                .displayName(entry.displayName)
+                .addAllGroups(entry.groups)
+                .build();
+    }
+
+    public void put(final User user) throws IOException {
+        final Entry entry = new Entry();
+        entry.key = user.getKey();
+        entry.name = user.getName();
+        entry.displayName = user.getDisplayName();
+        entry.groups = user.getGroups();
+        entry.fetched = clock.getAsLong();
+        entries.put(entry.key, entry);
+
+        final String line = objectMapper.writeValueAsString(entry) + System.lineSeparator();
+        final String batch;
+        synchronized (pending) {
+            pending.append(line);
+            if (++numPending < APPEND_EVERY) {
+                return;
+            }
+            batch = takePending();
+        }
+        withLock(() -> append(batch));
+    }
+
+    /** Appends every user put so far. */
+    public void flush() throws IOException {
+        final String batch;
+        synchronized (pending) {
+            if (numPending == 0) {
+                return;
+            }
+            batch = takePending();
+        }
+        withLock(() -> append(batch));
+    }
+
+    /** Only while synchronized on {@link #pending}. */
+    private String takePending() {
+        final String batch = pending.toString();
+        pending.setLength(0);
+        numPending = 0;
+        return batch;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /** Appends the users not yet appended. Failing to is only logged, since they'll just be looked up again. */
+    @Override
+    public void close() {
+        try {
+            flush();
+        } catch (final IOException e) {
+            log.warn("Failed to save users to {}.", file, e);
+        }
+    }
+
+    private boolean isExpired(final Entry entry) {
+        return clock.getAsLong() - entry.fetched >= ttlMillis;
+    }
+
+    /**
+     * Runs {@code action} holding the lock file. A JVM holds file locks as a whole, so its own threads and caches
+     * take turns first.
+     */
+    private void withLock(final IOAction action) throws IOException {
+        synchronized (UserCache.class) {
+            try (final FileChannel channel = FileChannel.open(lockFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                final FileLock lock = channel.lock();
+                try {
+                    action.run();
+                } finally {
+                    lock.release();
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface IOAction {
+        void run() throws IOException;
+    }
+
+    private int load() throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+
+        int lines = 0;
+        try (final BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                lines++;
+                try {
+                    final Entry entry = objectMapper.readValue(line, Entry.class);
+                    if (entry.key != null) {
+                        entries.put(entry.key, entry);
+                    }
+                } catch (final IOException e) {
+                    // Most likely a line cut short by a killed run.
+                    log.warn("Skipping unreadable line {} in {}.", lines, file);
+                }
+            }
+        }
+        return lines;
+    }
+
+    /** Only while holding the lock. */
+    private void append(final String lines) throws IOException {
+        try (final FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final long size = channel.size();
+            String text = lines;
+            if (size > 0) {
+                final ByteBuffer last = ByteBuffer.allocate(1);
+                channel.read(last, size - 1);
+                if (last.get(0) != '\n') {
+                    // A killed run left a line cut short; ours would be glued onto it and skipped with it on load
+                    text = System.lineSeparator() + lines;
+                }
+            }
+            final ByteBuffer bytes = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+            long position = size;
+            while (bytes.hasRemaining()) {
+                position += channel.write(bytes, position);
+            }
+        }
+    }
+
+    private void compact() throws IOException {
+        final Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (final BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            for (final Entry entry : entries.values()) {
+                out.write(objectMapper.writeValueAsString(entry));
+                out.newLine();
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Compacted {} to {} users.", file, entries.size());
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static class Entry {
+        public String key;
+        public String name;
+        public String displayName;
+        public List<String> groups = new ArrayList<>();
+        public long fetched;
+    }
+}
@@ -4,11 +4,9 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.JsonNodeType;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
-import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableList;
 import com.indeed.jiraactions.Action;
 import com.indeed.jiraactions.UserLookupService;
-import com.indeed.jiraactions.api.customfields.CustomFieldDefinition.SplitRule;
 import com.indeed.jiraactions.api.response.issue.Issue;
 import com.indeed.jiraactions.api.response.issue.User;
 import com.indeed.jiraactions.api.response.issue.changelog.histories.History;
@@ -21,11 +19,12 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.ParametersAreNonnullByDefault;
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -41,12 +40,12 @@ public class CustomFieldApiParser {
 
     public CustomFieldApiParser(final UserLookupService userLookupService) {
         this.userLookupService = userLookupService;
-        this.failedCustomFields = new HashSet<>();
-        this.failedCustomHistoryFields = new HashSet<>();
+        this.failedCustomFields = ConcurrentHashMap.newKeySet();
+        this.failedCustomHistoryFields = ConcurrentHashMap.newKeySet();
     }
 
     public CustomFieldValue parseInitialValue(final CustomFieldDefinition definition, final Issue issue) {
-        final Item item = issue.initialItem(true, getItemLabels(definition));
+        final Item item = issue.initialItem(true, definition.getPlan().getItemLabels());
         if(item != null) {
             return customFieldValueFromChangelog(definition, item.from, item.fromString);
         } else {
@@ -57,9 +56,8 @@ public class CustomFieldApiParser {
             return firstFound.map(jsonNode -> {
                 final CustomFieldValue customFieldValue = customFieldFromInitialFields(definition, jsonNode);
                 if (customFieldValue.isEmpty()) {
-                    if (!failedCustomFields.contains(definition)) {
+                    if (failedCustomFields.add(definition)) {
                         log.debug("Customfield {} failed to parse json node {}", definition, jsonNode);
-                        failedCustomFields.add(definition);
                     }
                 }
                 return customFieldValue;
@@ -69,13 +67,12 @@ public class CustomFieldApiParser {
 
     public CustomFieldValue parseNonInitialValue(final CustomFieldDefinition definition, final Action prevAction,
                                                  final History history) {
-        final Item item = history.getItem(true, getItemLabels(definition));
+        final Item item = history.getItem(true, definition.getPlan().getItemLabels());
         if(item != null) {
             final CustomFieldValue value = customFieldValueFromChangelog(definition, item.to, item.toString);
             if (StringUtils.isNotEmpty(item.toString) && value.isEmpty()) {
-                if (!failedCustomHistoryFields.contains(definition)) {
+                if (failedCustomHistoryFields.add(definition)) {
                     log.debug("Customfield {} failed to parse history item {}", definition, item.toString);
-                    failedCustomHistoryFields.add(definition);
                 }
             }
             return value;
@@ -85,11 +82,49 @@ public class CustomFieldApiParser {
                 log.error("No previous value for {} found for issue {}.", definition.getName(), prevAction.getIssuekey());
                 return new CustomFieldValue(definition);
             } else {
-                return new CustomFieldValue(prevValue);
+                // Values don't change, so the previous action's can be shared
+                return prevValue;
             }
         }
     }
 
+    /**
+     * Adds the user keys that parsing {@code definition} for this issue will look up, which only happens for
+     * {@link CustomFieldDefinition.MultiValueFieldConfiguration#USERNAME} fields.
+     */
+    public void collectUserKeys(final CustomFieldDefinition definition, final Issue issue,
+                                final Collection<String> keys) {
+        if(!CustomFieldDefinition.MultiValueFieldConfiguration.USERNAME.equals(definition.getMultiValueFieldConfiguration())) {
+            return;
+        }
+
+        final String[] labels = definition.getPlan().getItemLabels();
+        for(final History history : issue.changelog.histories) {
+            for(final String label : labels) {
+                for(final Item item : history.getAllItems(label)) {
+                    collectUserKeys(definition, item.from, item.fromString, keys);
+                    collectUserKeys(definition, item.to, item.toString, keys);
+                }
+            }
+        }
+        for(final String id : definition.getCustomFieldId()) {
+            final JsonNode json = issue.fields.getCustomField(id);
+            if(json != null && json.has("key")) {
+                keys.add(json.get("key").asText());
+            }
+        }
+    }
+
+    private static void collectUserKeys(final CustomFieldDefinition definition, final String value,
+                                        final String valueString, final Collection<String> keys) {
+        final CustomFieldPlan plan = definition.getPlan();
+        if(plan.shouldSplit(valueString)) {
+            plan.splitOnSeparator(plan.split(valueString)).forEach(keys::add);
+        } else {
+            keys.add(value);
+        }
+    }
+
     /**
      * When you're reading the value from the changelog (the Items) instead of the Fields section of the API response.
      * Used for the initial value when it has changed, or when a field has changed throughout the lifetime of an issue.
@@ -101,27 +136,13 @@ public class CustomFieldApiParser {
             final String value,
             final String valueString
     ) {
+        final CustomFieldPlan plan = definition.getPlan();
         final boolean valueStringIsEmpty = StringUtils.isEmpty(valueString);
-        final String splitValueString;
-        final boolean shouldSplit =
-                definition.getSplit() != SplitRule.NONE
-                && StringUtils.isNotEmpty(definition.getSeparator())
-                && !valueStringIsEmpty;
-        final String splitPattern;
-        if (shouldSplit) {
-            splitPattern = definition.getSplit().getSplitPattern();
-            splitValueString = valueString.replaceAll(
-                    splitPattern,
-                    definition.getSeparator()
-            );
-        } else {
-            splitPattern = "";
-            splitValueString = valueString;
-        }
+        final boolean shouldSplit = plan.shouldSplit(valueString);
+        final String splitValueString = shouldSplit ? plan.split(valueString) : valueString;
         if(CustomFieldDefinition.MultiValueFieldConfiguration.NONE.equals(definition.getMultiValueFieldConfiguration())) {
-            if (StringUtils.isNotEmpty(definition.getSeparator()) && !valueStringIsEmpty) {
-                final String split = StringUtils.isEmpty(splitPattern) ? ", ?" : splitPattern;
-                return new CustomFieldValue(definition, splitValueString.replaceAll(split, definition.getSeparator()), "");
+            if (plan.hasSeparator() && !valueStringIsEmpty) {
+                return new CustomFieldValue(definition, plan.separateList(splitValueString), "");
             } else {
                 return new CustomFieldValue(definition, splitValueString, "");
             }
@@ -129,11 +150,11 @@ public class CustomFieldApiParser {
             final String usernames;
             if (shouldSplit) {
                 final ImmutableList.Builder<String> usernameList = ImmutableList.builder();
-                for (final String userKey : Splitter.on(definition.getSeparator()).split(splitValueString)) {
+                for (final String userKey : plan.splitOnSeparator(splitValueString)) {
                     final User user = userLookupService.getUser(userKey);
                     usernameList.add(user.getName());
                 }
-                usernames = Joiner.on(definition.getSeparator()).join(usernameList.build());
+                usernames = Joiner.on(plan.getSeparator()).join(usernameList.build());
             } else {
                 final User user = userLookupService.getUser(value);
                 usernames = user.getName();
@@ -204,8 +225,8 @@ public class CustomFieldApiParser {
         } else {
             if(node.has("value")) {
                 final String nodeValue = node.get("value").asText();
-                if (definition.getSplit() != SplitRule.NONE && StringUtils.isNotEmpty(definition.getSeparator())) {
-                    return nodeValue.replaceAll(definition.getSplit().getSplitPattern(), definition.getSeparator());
+                if (definition.getPlan().hasSplit()) {
+                    return definition.getPlan().split(nodeValue);
                 } else {
                     return nodeValue;
                 }
@@ -219,8 +240,8 @@ public class CustomFieldApiParser {
                     final int start = index + "name=".length();
                     final int end = text.indexOf(",", start);
                     return text.substring(start, end >= start ? end : text.length());
-                } else if (definition.getSplit() != SplitRule.NONE && StringUtils.isNotEmpty(definition.getSeparator())) {
-                    return text.replaceAll(definition.getSplit().getSplitPattern(), definition.getSeparator());
+                } else if (definition.getPlan().hasSplit()) {
+                    return definition.getPlan().split(text);
                 } else {
                     return text;
                 }
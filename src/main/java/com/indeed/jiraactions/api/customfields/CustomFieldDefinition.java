@@ -1,6 +1,7 @@
 package com.indeed.jiraactions.api.customfields;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.google.common.collect.ImmutableList;
@@ -10,7 +11,8 @@ import org.immutables.value.Value;
 
 import java.util.List;
 
-@Value.Immutable
+// Prehashed, since every action's custom field values are looked up by definition
+@Value.Immutable(prehash = true)
 @JsonSerialize(as = ImmutableCustomFieldDefinition.class)
 @JsonDeserialize(as = ImmutableCustomFieldDefinition.class)
 public interface CustomFieldDefinition {
@@ -89,6 +91,23 @@ public interface CustomFieldDefinition {
         return Transformation.NONE;
     }
 
+    /**
+     * Where this field is in the configured custom fields, and so where {@link CustomFieldValues} keeps its value.
+     * Assigned as the configuration is loaded; -1 for definitions that weren't.
+     */
+    @Value.Default
+    @Value.Auxiliary
+    default int getOrdinal() {
+        return -1;
+    }
+
+    /** Compiled the first time it's needed, which {@link CustomFieldDefinitionParser} makes on loading. */
+    @JsonIgnore
+    @Value.Lazy
+    default CustomFieldPlan getPlan() {
+        return new CustomFieldPlan(this);
+    }
+
     default List<String> getHeaders() {
         switch(getMultiValueFieldConfiguration()) {
             case SEPARATE:
@@ -19,6 +19,11 @@ public abstract class CustomFieldDefinitionParser {
             .enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY);
 
     public static CustomFieldDefinition[] parseCustomFields(final InputStream in) throws IOException {
-        return mapper.readValue(in, CustomFieldDefinition[].class);
+        final CustomFieldDefinition[] definitions = mapper.readValue(in, CustomFieldDefinition[].class);
+        for (int i = 0; i < definitions.length; i++) {
+            definitions[i] = ImmutableCustomFieldDefinition.copyOf(definitions[i]).withOrdinal(i);
+            definitions[i].getPlan();
+        }
+        return definitions;
     }
 }
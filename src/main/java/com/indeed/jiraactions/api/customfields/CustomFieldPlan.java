@@ -0,0 +1,73 @@
+package com.indeed.jiraactions.api.customfields;
+
+import com.google.common.base.Splitter;
+import com.indeed.jiraactions.api.customfields.CustomFieldDefinition.SplitRule;
+import org.apache.commons.lang.StringUtils;
+
+import javax.annotation.Nullable;
+import java.util.regex.Pattern;
+
+/**
+ * What {@link CustomFieldApiParser} needs from a {@link CustomFieldDefinition}, worked out once rather than for every
+ * value it parses: the changelog labels to look for, and the split rule and separator as compiled patterns.
+ */
+public final class CustomFieldPlan {
+    private static final Pattern COMMA = Pattern.compile(", ?");
+
+    private final String[] itemLabels;
+    private final String separator;
+    /** Only if there's a split rule and a separator to replace its matches with. */
+    @Nullable
+    private final Pattern split;
+    @Nullable
+    private final Splitter separatorSplitter;
+
+    CustomFieldPlan(final CustomFieldDefinition definition) {
+        this.itemLabels = CustomFieldApiParser.getItemLabels(definition);
+        this.separator = definition.getSeparator();
+        this.split = definition.getSplit() != SplitRule.NONE && StringUtils.isNotEmpty(separator)
+                ? Pattern.compile(definition.getSplit().getSplitPattern())
+                : null;
+        this.separatorSplitter = StringUtils.isEmpty(separator) ? null : Splitter.on(separator);
+    }
+
+    /** Don't change it, it's shared. */
+    String[] getItemLabels() {
+        return itemLabels;
+    }
+
+    String getSeparator() {
+        return separator;
+    }
+
+    boolean hasSeparator() {
+        return separatorSplitter != null;
+    }
+
+    boolean hasSplit() {
+        return split != null;
+    }
+
+    /** Whether {@link #split} applies to {@code valueString}. */
+    boolean shouldSplit(@Nullable final String valueString) {
+        return split != null && StringUtils.isNotEmpty(valueString);
+    }
+
+    /** Replaces whatever the split rule matches with the separator. Only if {@link #hasSplit()}. */
+    String split(final String valueString) {
+        return split.matcher(valueString).replaceAll(separator);
+    }
+
+    /**
+     * Replaces what separates a list of values with the separator: whatever the split rule matches, or otherwise a
+     * comma. Only if {@link #hasSeparator()}.
+     */
+    String separateList(final String valueString) {
+        return (split == null ? COMMA : split).matcher(valueString).replaceAll(separator);
+    }
+
+    /** Only if {@link #hasSeparator()}. */
+    Iterable<String> splitOnSeparator(final String valueString) {
+        return separatorSplitter.split(valueString);
+    }
+}
@@ -14,6 +14,7 @@ import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 
 import java.util.List;
+import java.util.Objects;
 
 @ParametersAreNonnullByDefault
 @ReturnValuesAreNonnullByDefault
@@ -24,6 +25,8 @@ public class CustomFieldValue {
     private final CustomFieldDefinition definition;
     private final String value;
     private final String childValue;
+    @Nullable
+    private List<String> rendered;
 
     protected CustomFieldValue(final CustomFieldDefinition definition, final String value) {
         this(definition, value, "");
@@ -47,11 +50,68 @@ public class CustomFieldValue {
         return new CustomFieldValue(definition);
     }
 
+    /**
+     * Whether every column is empty, which doesn't render anything beyond what {@link #getValues()} keeps anyway.
+     */
     public boolean isEmpty() {
-        return StringUtils.isEmpty(String.join("", getValues()));
+        for (final String column : getValues()) {
+            if (!column.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
     }
 
+    /**
+     * The sanitized columns, rendered the first time they're asked for. A value carried forward unchanged is the same
+     * instance from action to action, so it's only rendered once however many actions it's written for.
+     */
     public List<String> getValues() {
+        // Racing threads would only render the same list twice, and an ImmutableList is safe to publish this way
+        List<String> values = rendered;
+        if (values == null) {
+            values = render();
+            rendered = values;
+        }
+        return values;
+    }
+
+    /**
+     * The same as {@code getValues().get(column)}.
+     */
+    public String getValue(final int column) {
+        final List<String> values = getValues();
+        if (column < 0 || column >= values.size()) {
+            throw new IndexOutOfBoundsException("Column " + column + " of " + definition.getName());
+        }
+        return values.get(column);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final CustomFieldValue other = (CustomFieldValue) o;
+        return Objects.equals(value, other.value)
+                && Objects.equals(childValue, other.childValue)
+                && definition.equals(other.definition);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(definition, value, childValue);
+    }
+
+    @Override
+    public String toString() {
+        return definition.getName() + "=" + getValues();
+    }
+
+    private List<String> render() {
         switch(definition.getMultiValueFieldConfiguration()) {
             case NONE:
                 return ImmutableList.of(sanitize(getTransformedValue(value)));
@@ -0,0 +1,162 @@
+package com.indeed.jiraactions.api.customfields;
+
+import javax.annotation.Nullable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An action's custom field values, in an array in the order of the configured custom fields. Looking up a definition
+ * goes by its {@link CustomFieldDefinition#getOrdinal() ordinal} rather than comparing all of its arrays. Definitions
+ * without an ordinal still work, they're just found by scanning.
+ *
+ * An issue's states share these without copying them, so they can't be changed once built; {@link #builder} makes new ones.
+ */
+public final class CustomFieldValues extends AbstractMap<CustomFieldDefinition, CustomFieldValue> {
+    private final CustomFieldDefinition[] definitions;
+    private final CustomFieldValue[] values;
+
+    private CustomFieldValues(final CustomFieldDefinition[] definitions, final CustomFieldValue[] values) {
+        this.definitions = definitions;
+        this.values = values;
+    }
+
+    public static Builder builder(final CustomFieldDefinition[] definitions) {
+        return new Builder(definitions);
+    }
+
+    @Nullable
+    @Override
+    public CustomFieldValue get(final Object key) {
+        final int index = indexOf(key);
+        return index < 0 ? null : values[index];
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public Set<Entry<CustomFieldDefinition, CustomFieldValue>> entrySet() {
+        return new AbstractSet<Entry<CustomFieldDefinition, CustomFieldValue>>() {
+            @Override
+            public Iterator<Entry<CustomFieldDefinition, CustomFieldValue>> iterator() {
+                return new Iterator<Entry<CustomFieldDefinition, CustomFieldValue>>() {
+                    private int next = advance(0);
+
+                    private int advance(final int from) {
+                        int index = from;
+                        while (index < values.length && values[index] == null) {
+                            index++;
+                        }
+                        return index;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < values.length;
+                    }
+
+                    @Override
+                    public Entry<CustomFieldDefinition, CustomFieldValue> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        final Entry<CustomFieldDefinition, CustomFieldValue> entry =
+                                new SimpleImmutableEntry<>(definitions[next], values[next]);
+                        next = advance(next + 1);
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                int size = 0;
+                for (final CustomFieldValue value : values) {
+                    if (value != null) {
+                        size++;
+                    }
+                }
+                return size;
+            }
+        };
+    }
+
+    private int indexOf(final Object key) {
+        return indexOf(definitions, key);
+    }
+
+    private static int indexOf(final CustomFieldDefinition[] definitions, final Object key) {
+        if (!(key instanceof CustomFieldDefinition)) {
+            return -1;
+        }
+        final int ordinal = ((CustomFieldDefinition) key).getOrdinal();
+        if (ordinal >= 0 && ordinal < definitions.length && definitions[ordinal] == key) {
+            return ordinal;
+        }
+        for (int i = 0; i < definitions.length; i++) {
+            if (definitions[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public static final class Builder {
+        private final CustomFieldDefinition[] definitions;
+        @Nullable
+        private CustomFieldValue[] values;
+
+        private Builder(final CustomFieldDefinition[] definitions) {
+            this.definitions = definitions;
+            this.values = new CustomFieldValue[definitions.length];
+        }
+
+        /**
+         * Starts from {@code other}'s values, which is just an array copy if it's for the same definitions. Values
+         * for anything but this builder's definitions are left out.
+         */
+        public Builder from(final Map<CustomFieldDefinition, CustomFieldValue> other) {
+            final CustomFieldValue[] values = values();
+            if (other instanceof CustomFieldValues && ((CustomFieldValues) other).definitions == definitions) {
+                System.arraycopy(((CustomFieldValues) other).values, 0, values, 0, values.length);
+                return this;
+            }
+            for (final Entry<CustomFieldDefinition, CustomFieldValue> entry : other.entrySet()) {
+                final int index = indexOf(definitions, entry.getKey());
+                if (index >= 0) {
+                    values[index] = entry.getValue();
+                }
+            }
+            return this;
+        }
+
+        public Builder put(final CustomFieldDefinition key, @Nullable final CustomFieldValue value) {
+            final int index = indexOf(definitions, key);
+            if (index < 0) {
+                throw new IllegalArgumentException("Not one of the configured custom fields: " + key);
+            }
+            values()[index] = value;
+            return this;
+        }
+
+        /** Hands over the values rather than copying them, so this builder is done with. */
+        public CustomFieldValues build() {
+            final CustomFieldValues built = new CustomFieldValues(definitions, values());
+            values = null;
+            return built;
+        }
+
+        private CustomFieldValue[] values() {
+            if (values == null) {
+                throw new IllegalStateException("Already built");
+            }
+            return values;
+        }
+    }
+}
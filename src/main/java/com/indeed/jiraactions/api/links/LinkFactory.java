@@ -8,6 +8,7 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nonnull;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.regex.Matcher;
@@ -34,7 +35,15 @@ public class LinkFactory {
                 .build();
     }
 
+    /**
+     * @return {@code source} itself if there are no changes, so actions can share it, or otherwise a new set, since
+     * {@code source} may be shared and isn't ours to change
+     */
     public Set<Link> mergeLinks(@Nonnull final Set<Link> source, final Collection<Item> changes) {
+        if(changes.isEmpty()) {
+            return source;
+        }
+
         final Set<Link> output = new HashSet<>(source);
         for(final Item item : changes) {
             if(!StringUtils.isEmpty(item.fromString)) {
@@ -55,6 +64,6 @@ public class LinkFactory {
             }
         }
 
-        return output;
+        return Collections.unmodifiableSet(output);
     }
 }
@@ -0,0 +1,48 @@
+package com.indeed.jiraactions.api.response.issue;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+import javax.annotation.Nullable;
+import java.util.Set;
+
+/**
+ * One shared instance of each value of the fields that only ever have a handful of them, like status or priority.
+ * Every issue parses its own copies, and every action built from it would otherwise keep them, so they're swapped for
+ * the shared ones as they're read. A value is only kept while something still holds it, so a process that runs the
+ * builder again and again doesn't keep every value it has ever seen.
+ */
+public final class ValueDictionary {
+    private static final Set<String> FIELDS = ImmutableSet.of(
+            "status",
+            "priority",
+            "issuetype",
+            "project",
+            "projectkey",
+            "resolution",
+            "category",
+            "components",
+            "fixversions"
+    );
+
+    private static final Interner<String> VALUES = Interners.newWeakInterner();
+
+    private ValueDictionary() { /* No */ }
+
+    /** Whether values of {@code field}, as {@link com.indeed.jiraactions.api.response.issue.changelog.histories.Item} names it, are kept here. */
+    public static boolean isDictionaryField(@Nullable final String field) {
+        return field != null && FIELDS.contains(field);
+    }
+
+    @Nullable
+    public static String canonical(@Nullable final String value) {
+        return value == null ? null : VALUES.intern(value);
+    }
+
+    /** {@code value}'s shared instance if it's a value of {@code field} that's kept here, otherwise {@code value}. */
+    @Nullable
+    public static String canonical(@Nullable final String field, @Nullable final String value) {
+        return isDictionaryField(field) ? canonical(value) : value;
+    }
+}
@@ -3,9 +3,10 @@ package com.indeed.jiraactions.api.response.issue.changelog;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.indeed.jiraactions.api.response.issue.changelog.histories.History;
 import com.indeed.jiraactions.api.response.issue.changelog.histories.Item;
-import org.joda.time.DateTime;
 
 import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * @author soono
@@ -16,17 +17,24 @@ import javax.annotation.Nullable;
 public class ChangeLog {
     public History[] histories;
 
+    @Nullable
+    private FirstItems firstItems;
+
+    /**
+     * @return the item for any of {@code fields} from the earliest history that has one, going by the order of
+     * {@code fields} within a history
+     */
     @Nullable
     public Item getFirstHistoryItem(final boolean acceptCustom, final String... fields) {
-        for (final History history : histories) {
-            for(final String field : fields) {
-                final Item item = history.getItem(field, acceptCustom);
-                if(item != null) {
-                    return item;
-                }
+        final Map<String, FirstItem> firstByField = getFirstItems().get(acceptCustom);
+        FirstItem first = null;
+        for (final String field : fields) {
+            final FirstItem candidate = firstByField.get(field);
+            if (candidate != null && (first == null || candidate.history < first.history)) {
+                first = candidate;
             }
         }
-        return null;
+        return first == null ? null : first.item;
     }
 
     public void sortHistories() {
@@ -36,16 +44,63 @@ public class ChangeLog {
 
         for (int i=1; i < histories.length; i++) {
             final History history = histories[i];
-            final DateTime date = history.created;
+            final long date = history.created;
             int j;
             for (j=i-1; j >= 0; j--) {
-                final DateTime comparedDate = histories[j].created;
-                if (date.isAfter(comparedDate) || date.equals(comparedDate)) {
+                if (date >= histories[j].created) {
                     break;
                 }
                 histories[j+1] = histories[j];
+                firstItems = null;
             }
             histories[j+1] = history;
         }
     }
+
+    private FirstItems getFirstItems() {
+        FirstItems items = firstItems;
+        if (items == null || items.histories != histories) {
+            items = new FirstItems(histories);
+            firstItems = items;
+        }
+        return items;
+    }
+
+    /**
+     * The first item for every field, found in one pass over the histories rather than one per field. Creating an
+     * action asks for dozens of fields' initial values.
+     */
+    private static final class FirstItems {
+        private final History[] histories;
+        private final Map<String, FirstItem> firstNonCustom = new HashMap<>();
+        private final Map<String, FirstItem> first = new HashMap<>();
+
+        private FirstItems(final History[] histories) {
+            this.histories = histories;
+            for (int i = 0; i < histories.length; i++) {
+                for (final Item item : histories[i].items) {
+                    if (!first.containsKey(item.field)) {
+                        first.put(item.field, new FirstItem(i, item));
+                    }
+                    if (!item.customField && !firstNonCustom.containsKey(item.field)) {
+                        firstNonCustom.put(item.field, new FirstItem(i, item));
+                    }
+                }
+            }
+        }
+
+        private Map<String, FirstItem> get(final boolean acceptCustom) {
+            return acceptCustom ? first : firstNonCustom;
+        }
+    }
+
+    private static final class FirstItem {
+        private final int history;
+        private final Item item;
+
+        private FirstItem(final int history, final Item item) {
+            this.history = history;
+            this.item = item;
+        }
+    }
 }
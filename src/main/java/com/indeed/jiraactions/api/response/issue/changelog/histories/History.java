@@ -6,16 +6,16 @@ import com.google.common.base.Joiner;
 import com.indeed.jiraactions.JiraActionsUtil;
 import com.indeed.jiraactions.api.response.issue.User;
 import org.apache.commons.lang.StringUtils;
-import org.joda.time.DateTime;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * @author soono
@@ -24,12 +24,16 @@ import java.util.stream.Collectors;
 @JsonIgnoreProperties(ignoreUnknown=true)
 public class History {
     public User author;
-    public DateTime created;
+    /** Epoch millis. */
+    public long created;
     public Item[] items;
 
+    @Nullable
+    private FieldIndex fieldIndex;
+
     @JsonProperty("created")
     public void setCreate(final String created) {
-        this.created = JiraActionsUtil.parseDateTime(created);
+        this.created = JiraActionsUtil.parseMillis(created);
     }
 
     public String getChangedFields() {
@@ -45,45 +49,57 @@ public class History {
     }
 
     public boolean itemExist(final String field, final boolean acceptCustom) {
-        for (final Item item : items) {
-            if (Objects.equals(item.field, field) && (acceptCustom || !item.customField)) {
-                return true;
-            }
-        }
-        return false;
+        return getItem(field, acceptCustom) != null;
     }
 
     @Nullable
     public Item getItem(final String field, final boolean acceptCustom) {
-        for (final Item item : items) {
-            if (Objects.equals(item.field, field) && (acceptCustom || !item.customField)) {
-                return item;
+        final FieldIndex index = getFieldIndex();
+        for (int i = index.first(field); i >= 0; i = index.next[i]) {
+            if (acceptCustom || !items[i].customField) {
+                return items[i];
             }
         }
 
         return null;
     }
 
+    /**
+     * @return the first item for any of {@code fields} that has a value, or if none do, the last item for any of them
+     */
     @Nullable
     public Item getItem(final boolean acceptCustom, final String... fields) {
-        Item bestItem = null;
-        for(final Item item : items) {
-            for(final String field : fields) {
-                if (Objects.equals(item.field, field) && (acceptCustom || !item.customField)) {
-                    if(StringUtils.isNotEmpty(item.toString)) {
-                        return item;
+        final FieldIndex index = getFieldIndex();
+        int bestWithValue = Integer.MAX_VALUE;
+        int best = -1;
+        for (final String field : fields) {
+            for (int i = index.first(field); i >= 0 && i < bestWithValue; i = index.next[i]) {
+                if (acceptCustom || !items[i].customField) {
+                    if (StringUtils.isNotEmpty(items[i].toString)) {
+                        bestWithValue = i;
                     } else {
-                        bestItem = item;
-                        break;
+                        best = Math.max(best, i);
                     }
                 }
             }
         }
-        return bestItem;
+        if (bestWithValue < Integer.MAX_VALUE) {
+            return items[bestWithValue];
+        }
+        return best < 0 ? null : items[best];
     }
 
     public List<Item> getAllItems(@Nonnull final String field) {
-        return Arrays.stream(items).filter(i -> field.equals(i.field)).collect(Collectors.toList());
+        final FieldIndex index = getFieldIndex();
+        final int first = index.first(field);
+        if (first < 0) {
+            return Collections.emptyList();
+        }
+        final List<Item> allItems = new ArrayList<>(1);
+        for (int i = first; i >= 0; i = index.next[i]) {
+            allItems.add(items[i]);
+        }
+        return allItems;
     }
 
     public String getItemLastValue(final String field) {
@@ -111,4 +127,44 @@ public class History {
 
         return item.to;
     }
+
+    private FieldIndex getFieldIndex() {
+        FieldIndex index = fieldIndex;
+        if (index == null || index.items != items) {
+            index = new FieldIndex(items);
+            fieldIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Where each field's items are, so looking one up doesn't mean scanning every item with string compares. The
+     * items for a field are chained together in order: the first is in the map, and {@code next} has the rest.
+     */
+    private static final class FieldIndex {
+        private final Item[] items;
+        private final Map<String, Integer> first;
+        private final int[] next;
+
+        private FieldIndex(final Item[] items) {
+            this.items = items;
+            this.first = new HashMap<>(items.length * 2);
+            this.next = new int[items.length];
+            final Map<String, Integer> last = new HashMap<>(items.length * 2);
+            for (int i = 0; i < items.length; i++) {
+                next[i] = -1;
+                final Integer previous = last.put(items[i].field, i);
+                if (previous == null) {
+                    first.put(items[i].field, i);
+                } else {
+                    next[previous] = i;
+                }
+            }
+        }
+
+        private int first(final String field) {
+            final Integer index = first.get(field);
+            return index == null ? -1 : index;
+        }
+    }
 }
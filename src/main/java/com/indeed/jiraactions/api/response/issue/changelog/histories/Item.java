@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableMap;
+import com.indeed.jiraactions.api.response.issue.ValueDictionary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,7 +46,29 @@ public class Item {
         if(jiraFieldMapping.containsKey(field)) {
             this.field = jiraFieldMapping.get(field);
         } else {
-            this.field = field.toLowerCase().replaceAll("\\s", "-");
+            // Interned, since there are only so many fields and every history looks them up
+            this.field = field.toLowerCase().replaceAll("\\s", "-").intern();
+        }
+        canonicalizeValues();
+    }
+
+    @JsonProperty("fromString")
+    public void setFromString(final String fromString) {
+        this.fromString = fromString;
+        canonicalizeValues();
+    }
+
+    @JsonProperty("toString")
+    public void setToString(final String toString) {
+        this.toString = toString;
+        canonicalizeValues();
+    }
+
+    /** The field and its values can come in any order, so this runs as each arrives. */
+    private void canonicalizeValues() {
+        if (ValueDictionary.isDictionaryField(field)) {
+            fromString = ValueDictionary.canonical(fromString);
+            toString = ValueDictionary.canonical(toString);
         }
     }
 }
@@ -7,6 +7,7 @@ import com.google.common.base.Joiner;
 import com.indeed.jiraactions.JiraActionsUtil;
 import com.indeed.jiraactions.api.response.issue.Priority;
 import com.indeed.jiraactions.api.response.issue.User;
+import com.indeed.jiraactions.api.response.issue.ValueDictionary;
 import com.indeed.jiraactions.api.response.issue.fields.comment.CommentCollection;
 import org.joda.time.DateTime;
 
@@ -37,12 +38,12 @@ public class Field {
 
     @JsonProperty("created")
     public void setCreate(final String created) {
-        this.created = JiraActionsUtil.parseDateTime(created);
+        this.created = new DateTime(JiraActionsUtil.parseMillis(created), JiraActionsUtil.RAMSES_TIME);
     }
 
     @JsonProperty("updated")
     public void setUpdated(final String updated) {
-        this.updated = JiraActionsUtil.parseDateTime(updated);
+        this.updated = new DateTime(JiraActionsUtil.parseMillis(updated), JiraActionsUtil.RAMSES_TIME);
     }
 
     @SuppressWarnings("unused")
@@ -56,7 +57,12 @@ public class Field {
         return otherProperties.get(attribute);
     }
 
+    /** Values of the fields in {@link ValueDictionary} are its shared instances. */
     public String getStringValue(final String attribute) throws IOException {
+        return ValueDictionary.canonical(attribute, getRawStringValue(attribute));
+    }
+
+    private String getRawStringValue(final String attribute) throws IOException {
         switch (attribute) {
             case "assignee": return assignee == null ? "" : assignee.getDisplayName();
             case "assigneekey": return assignee == null ? "" : assignee.getKey();
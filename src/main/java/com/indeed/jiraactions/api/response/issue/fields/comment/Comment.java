@@ -4,7 +4,6 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.indeed.jiraactions.JiraActionsUtil;
 import com.indeed.jiraactions.api.response.issue.User;
-import org.joda.time.DateTime;
 
 /**
  * @author soono
@@ -16,7 +15,8 @@ public class Comment {
     public String id;
     public User author;
     public String body;
-    public DateTime created;
+    /** Epoch millis. */
+    public long created;
 
     public boolean isValid() {
         return author != null;
@@ -24,6 +24,6 @@ public class Comment {
 
     @JsonProperty("created")
     public void setCreate(final String created) {
-        this.created = JiraActionsUtil.parseDateTime(created);
+        this.created = JiraActionsUtil.parseMillis(created);
     }
 }
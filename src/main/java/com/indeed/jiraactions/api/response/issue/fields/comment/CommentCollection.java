@@ -1,7 +1,6 @@
 package com.indeed.jiraactions.api.response.issue.fields.comment;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import org.joda.time.DateTime;
 
 import java.util.Arrays;
 
@@ -20,10 +19,6 @@ public class CommentCollection {
         // Because it's usually already sorted, use insertion sort algorithm here.
         // KB: This comes back in *updated* order instead of created order
 
-        Arrays.sort(comments, (o1, o2) -> {
-            final DateTime date1 = o1.created;
-            final DateTime date2 = o2.created;
-            return date1.compareTo(date2);
-        });
+        Arrays.sort(comments, (o1, o2) -> Long.compare(o1.created, o2.created));
     }
 }
@@ -65,7 +65,7 @@ public class ActionTest {
 
         history = new History();
         history.author = author;
-        history.created = historyCreated;
+        history.created = historyCreated.getMillis();
         final Item historyItem = new Item();
         historyItem.setField("verifier");
         historyItem.fromString = "";
@@ -75,13 +75,13 @@ public class ActionTest {
         // For Update Action
         history2 = new History();
         history2.author = author;
-        history2.created = historyCreated2;
+        history2.created = historyCreated2.getMillis();
         history2.items = new Item[] { };
 
         // For Comment Action
         comment = new Comment();
         comment.author = author;
-        comment.created = commentCreated;
+        comment.created = commentCreated.getMillis();
 
     }
 
@@ -206,6 +206,6 @@ public class ActionTest {
         history2.items = new Item[] { item };
 
         final Action action = actionFactory.update(newPrevAction, history2);
-        Assert.assertEquals(history2.created.getMillis()/1000 - prevAction.getTimestamp().getMillis()/1000, action.getTimeinstate());
+        Assert.assertEquals(history2.created/1000 - prevAction.getTimestamp().getMillis()/1000, action.getTimeinstate());
     }
 }
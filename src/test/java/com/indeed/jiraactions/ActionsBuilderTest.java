@@ -22,6 +22,8 @@ import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
 
 public class ActionsBuilderTest {
     private Issue issue;
@@ -113,11 +115,57 @@ public class ActionsBuilderTest {
         Assert.assertTrue(containsComment);
     }
 
+    @Test
+    public void testBuildActions_commentsFollowTheLatestActionAtOrBeforeThem() throws Exception {
+        final DateTime issueDate = startDate.plusDays(1);
+        setCreationDate(issueDate);
+        createComment(issueDate.minusHours(1)); // Before the issue was created, so skipped
+        createHistory(issueDate.plusHours(2));
+        createHistory(issueDate.plusHours(1));
+        createComment(issueDate.plusHours(2)); // Same time as a history goes after it
+        createComment(issueDate);
+        createComment(issueDate.plusHours(2));
+        createComment(issueDate.plusHours(3));
+
+        final List<Action> actions = new ActionsBuilder(actionFactory, issue, startDate, endDate).buildActions();
+
+        Assert.assertEquals(
+                Arrays.asList("create@0", "comment@0", "update@1", "update@2", "comment@2", "comment@2", "comment@3"),
+                actions.stream()
+                        .map(action -> action.getAction() + "@" + action.getIssueage() / 3600)
+                        .collect(Collectors.toList()));
+        // Each comment's time since the last action counts from whatever it follows, but updates skip over comments
+        Assert.assertEquals(Arrays.asList(0L, 0L, 3600L, 3600L, 0L, 0L, 3600L),
+                actions.stream().map(Action::getTimesinceaction).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testBuildActionsInRange_matchesFilteringEveryAction() throws Exception {
+        final CustomFieldDefinition[] customFields = JiraFixtures.customFields();
+        final ActionFactory fixtureActionFactory = new ActionFactory(userLookupService,
+                new CustomFieldApiParser(userLookupService), JiraFixtures.config(customFields, "jira"));
+        final Random random = new Random(7);
+        for (int day = -1; day <= JiraFixtures.DAYS + 1; day++) {
+            final DateTime start = JiraFixtures.START.plusDays(day);
+            final DateTime end = start.plusDays(2);
+            final Issue fixture = JiraFixtures.parse(JiraFixtures.issue(random, "ABC-" + day, 40, 60));
+
+            final List<Action> expected = new ActionsBuilder(fixtureActionFactory, fixture, start, end).buildActions();
+            final Action last = expected.get(expected.size() - 1);
+            expected.removeIf(action -> !action.isInRange(start, end));
+            if (!last.isInRange(start, end)) {
+                expected.add(last);
+            }
+            final List<Action> actual = new ActionsBuilder(fixtureActionFactory, fixture, start, end).buildActionsInRange();
+            Assert.assertEquals(expected, actual);
+        }
+    }
+
     private void createHistory(final DateTime created) {
         final History history = new History();
         history.items = new Item[0];
 
-        history.created = created;
+        history.created = created.getMillis();
 
         final User historyAuthor = ImmutableUser.builder()
                 .displayName("AuthorDisplayName")
@@ -138,7 +186,7 @@ public class ActionsBuilderTest {
 
     private void createComment(final DateTime created) {
         final Comment comment = new Comment();
-        comment.created = created;
+        comment.created = created.getMillis();
 
         final User commentAuthor = ImmutableUser.builder()
                 .displayName("commentDisplayName")
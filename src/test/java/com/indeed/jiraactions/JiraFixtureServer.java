@@ -0,0 +1,335 @@
+package com.indeed.jiraactions;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.Splitter;
+import com.google.common.io.ByteStreams;
+import com.indeed.jiraactions.api.ResponseRecorder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * A local stand-in for the parts of JIRA's REST API the builder uses, so whole runs can be tested and benchmarked
+ * offline. Search pages through a fixed pool of issues in the order they were added (newest update first, like the
+ * real search) and ignores the JQL, except for the ascending searches of incremental runs, which get the issues
+ * updated since the given minute, oldest update first. Users are served by key, and unknown users are made up.
+ *
+ * To reproduce what happens against a busy JIRA it can add latency, answer every nth search with a 429, and move
+ * an issue to the front of the results after a given search, as if someone had just updated it; that shifts every
+ * page after it and is what makes the Paginator start another pass.
+ *
+ * It also takes iupload's uploads, at {@link #getIuploadUrl()}, and can fail them after a given number.
+ *
+ * {@link #replay(Path)} loads the responses saved by a run with a record directory, see {@link ResponseRecorder}.
+ */
+public class JiraFixtureServer implements Closeable {
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final Pattern INCREMENTAL_JQL = Pattern.compile("updatedDate>=\"([^\"]+)\".*ORDER BY updatedDate ASC");
+    private static final Pattern UPLOADED_FILE = Pattern.compile(
+            "filename=\"([^\"]+)\"\r\n(?:[^\r\n]+\r\n)*\r\n(.*?)\r\n--", Pattern.DOTALL);
+    private static final DateTimeFormatter JIRA_TIME_FORMAT = DateTimeFormat.forPattern("yyyy-MM-dd HH:mm")
+            .withZone(DateTimeZone.forID("America/Chicago"));
+
+    private final HttpServer server;
+    private final List<ObjectNode> issues = new ArrayList<>();
+    private final Map<String, ObjectNode> users = new ConcurrentHashMap<>();
+    private final Map<Integer, String> moveToFrontAfterSearch = new ConcurrentHashMap<>();
+    private final AtomicInteger searches = new AtomicInteger();
+    private final AtomicInteger userLookups = new AtomicInteger();
+    private final List<String> uploads = new ArrayList<>();
+    private final Map<String, String> uploadedFiles = new ConcurrentHashMap<>();
+    private volatile ObjectNode linkTypes;
+    private volatile int latencyMillis = 0;
+    private volatile int rateLimitEvery = 0;
+    private volatile int failSearchesAfter = 0;
+    private volatile int failUploadsAfter = 0;
+
+    private JiraFixtureServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/rest/api/2/search", handler(this::search));
+        server.createContext("/rest/api/2/user", handler(this::user));
+        server.createContext("/rest/api/2/issueLinkType", handler(query -> linkTypes));
+        server.createContext("/iupload", this::upload);
+        server.setExecutor(Executors.newCachedThreadPool());
+        setLinkTypes(JiraFixtures.linkTypes());
+    }
+
+    public static JiraFixtureServer start() throws IOException {
+        final JiraFixtureServer fixtureServer = new JiraFixtureServer();
+        fixtureServer.server.start();
+        return fixtureServer;
+    }
+
+    /**
+     * Serves the issues, users and link types from a recorded run. Issues seen more than once keep the position
+     * of their first appearance.
+     */
+    public static JiraFixtureServer replay(final Path recordDirectory) throws IOException {
+        final JiraFixtureServer fixtureServer = new JiraFixtureServer();
+        final Set<String> seenIssues = new HashSet<>();
+        for (final String line : Files.readAllLines(recordDirectory.resolve(ResponseRecorder.INDEX_FILE),
+                StandardCharsets.UTF_8)) {
+            final List<String> parts = Splitter.on('\t').limit(2).splitToList(line);
+            final JsonNode body = mapper.readTree(recordDirectory.resolve(parts.get(0)).toFile());
+            final String url = parts.get(1);
+            if (url.contains("/rest/api/2/search")) {
+                for (final JsonNode issue : body.path("issues")) {
+                    if (seenIssues.add(issue.get("key").asText())) {
+                        fixtureServer.addIssue((ObjectNode) issue);
+                    }
+                }
+            } else if (url.contains("/rest/api/2/user")) {
+                fixtureServer.addUser((ObjectNode) body);
+            } else if (url.contains("/rest/api/2/issueLinkType")) {
+                fixtureServer.linkTypes = (ObjectNode) body;
+            }
+        }
+        fixtureServer.server.start();
+        return fixtureServer;
+    }
+
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public String getIuploadUrl() {
+        return getBaseUrl() + "/iupload";
+    }
+
+    public synchronized JiraFixtureServer addIssue(final ObjectNode issue) {
+        issues.add(issue);
+        return this;
+    }
+
+    public JiraFixtureServer addUser(final ObjectNode user) {
+        users.put(user.get("key").asText(), user);
+        return this;
+    }
+
+    /**
+     * @param descriptions inward then outward description of each link type
+     */
+    public JiraFixtureServer setLinkTypes(final String... descriptions) {
+        final ObjectNode root = mapper.createObjectNode();
+        final ArrayNode types = root.putArray("issueLinkTypes");
+        for (int i = 0; i + 1 < descriptions.length; i += 2) {
+            final ObjectNode type = types.addObject();
+            type.put("inward", descriptions[i]);
+            type.put("outward", descriptions[i + 1]);
+        }
+        linkTypes = root;
+        return this;
+    }
+
+    public JiraFixtureServer withLatency(final int millis) {
+        latencyMillis = millis;
+        return this;
+    }
+
+    /** Answer every {@code n}th search with a 429; 0 never does. */
+    public JiraFixtureServer withRateLimitEvery(final int n) {
+        rateLimitEvery = n;
+        return this;
+    }
+
+    /** Answer every search after the {@code n}th with a 500, like a JIRA that went down; 0 never does. */
+    public JiraFixtureServer failSearchesAfter(final int n) {
+        failSearchesAfter = n;
+        return this;
+    }
+
+    /** Answer every upload after the {@code n}th that worked with a 500; 0 never does. */
+    public JiraFixtureServer failUploadsAfter(final int n) {
+        failUploadsAfter = n;
+        return this;
+    }
+
+    /** Once the {@code search}th search (counting from 1) has been answered, move {@code key} to the front. */
+    public JiraFixtureServer moveToFrontAfterSearch(final int search, final String key) {
+        moveToFrontAfterSearch.put(search, key);
+        return this;
+    }
+
+    public int getSearches() {
+        return searches.get();
+    }
+
+    public int getUserLookups() {
+        return userLookups.get();
+    }
+
+    /** Names of the files uploaded, in order, with any uploaded more than once repeated. */
+    public List<String> getUploads() {
+        synchronized (uploads) {
+            return new ArrayList<>(uploads);
+        }
+    }
+
+    /** The last upload of each file, by name. */
+    public Map<String, String> getUploadedFiles() {
+        return new TreeMap<>(uploadedFiles);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        ((java.util.concurrent.ExecutorService) server.getExecutor()).shutdownNow();
+    }
+
+    private JsonNode search(final Map<String, String> query) throws ErrorResponseException {
+        final int search = searches.incrementAndGet();
+        if (rateLimitEvery > 0 && search % rateLimitEvery == 0) {
+            throw new ErrorResponseException(429);
+        }
+        if (failSearchesAfter > 0 && search > failSearchesAfter) {
+            throw new ErrorResponseException(500);
+        }
+
+        final int startAt = Integer.parseInt(query.getOrDefault("startAt", "0"));
+        final int maxResults = Integer.parseInt(query.getOrDefault("maxResults", "50"));
+        final ObjectNode response = mapper.createObjectNode();
+        synchronized (this) {
+            final List<ObjectNode> results = getResults(query.getOrDefault("jql", ""));
+            response.put("startAt", startAt);
+            response.put("maxResults", maxResults);
+            response.put("total", results.size());
+            final ArrayNode page = response.putArray("issues");
+            for (int i = startAt; i < Math.min(startAt + maxResults, results.size()); i++) {
+                page.add(results.get(i));
+            }
+
+            final String moved = moveToFrontAfterSearch.get(search);
+            if (moved != null) {
+                for (int i = 0; i < issues.size(); i++) {
+                    if (moved.equals(issues.get(i).get("key").asText())) {
+                        issues.add(0, issues.remove(i));
+                        break;
+                    }
+                }
+            }
+        }
+        return response;
+    }
+
+    private void upload(final HttpExchange exchange) throws IOException {
+        try {
+            final String body = new String(ByteStreams.toByteArray(exchange.getRequestBody()), StandardCharsets.UTF_8);
+            final Matcher file = UPLOADED_FILE.matcher(body);
+            synchronized (uploads) {
+                if (!file.find() || (failUploadsAfter > 0 && uploads.size() >= failUploadsAfter)) {
+                    exchange.sendResponseHeaders(500, -1);
+                    return;
+                }
+                uploads.add(file.group(1));
+                uploadedFiles.put(file.group(1), file.group(2));
+            }
+            exchange.sendResponseHeaders(200, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private List<ObjectNode> getResults(final String jql) {
+        final Matcher ascending = INCREMENTAL_JQL.matcher(jql);
+        if (!ascending.find()) {
+            return issues;
+        }
+        final DateTime since = JIRA_TIME_FORMAT.parseDateTime(ascending.group(1));
+        return issues.stream()
+                .filter(issue -> !JiraFixtures.updated(issue).isBefore(since))
+                .sorted(Comparator.comparing(JiraFixtures::updated)
+                        .thenComparing(issue -> Integer.parseInt(issue.get("key").asText().split("-")[1])))
+                .collect(Collectors.toList());
+    }
+
+    private JsonNode user(final Map<String, String> query) {
+        userLookups.incrementAndGet();
+        final String key = query.get("key");
+        final ObjectNode user = users.computeIfAbsent(key, JiraFixtures::user).deepCopy();
+        if (!user.has("groups")) {
+            user.putObject("groups").putArray("items").addObject().put("name", "jira-users");
+        }
+        return user;
+    }
+
+    private HttpHandler handler(final Endpoint endpoint) {
+        return exchange -> {
+            try {
+                if (latencyMillis > 0) {
+                    Thread.sleep(latencyMillis);
+                }
+                final JsonNode body = endpoint.respond(parseQuery(exchange));
+                final byte[] bytes = mapper.writeValueAsBytes(body);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (final OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            } catch (final ErrorResponseException e) {
+                exchange.sendResponseHeaders(e.status, -1);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                exchange.sendResponseHeaders(503, -1);
+            } finally {
+                exchange.close();
+            }
+        };
+    }
+
+    private static Map<String, String> parseQuery(final HttpExchange exchange) throws UnsupportedEncodingException {
+        final Map<String, String> params = new HashMap<>();
+        final String query = exchange.getRequestURI().getRawQuery();
+        if (query != null) {
+            for (final String param : Splitter.on('&').omitEmptyStrings().split(query)) {
+                final List<String> keyValue = Splitter.on('=').limit(2).splitToList(param);
+                params.put(URLDecoder.decode(keyValue.get(0), "UTF-8"),
+                        keyValue.size() > 1 ? URLDecoder.decode(keyValue.get(1), "UTF-8") : "");
+            }
+        }
+        return params;
+    }
+
+    @FunctionalInterface
+    private interface Endpoint {
+        JsonNode respond(Map<String, String> query) throws ErrorResponseException;
+    }
+
+    private static class ErrorResponseException extends Exception {
+        private final int status;
+
+        private ErrorResponseException(final int status) {
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.indeed.jiraactions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.indeed.jiraactions.api.IssueAPIParser;
+import com.indeed.jiraactions.api.customfields.CustomFieldDefinition;
+import com.indeed.jiraactions.api.customfields.CustomFieldDefinitionParser;
+import com.indeed.jiraactions.api.response.issue.Issue;
+import org.joda.time.DateTime;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+/**
+ * Synthetic issues shaped like what /rest/api/2/search returns with an expanded changelog: a handful of users,
+ * statuses, labels, links and the custom fields from example-custom-fields.json, with histories and comments
+ * interleaved over {@link #DAYS} days from {@link #START}. Seeded, so every benchmark run sees the same data.
+ */
+public final class JiraFixtures {
+    private JiraFixtures() { /* No */ }
+
+    public static final DateTime START = new DateTime(2018, 4, 1, 0, 0, JiraActionsUtil.RAMSES_TIME);
+    public static final int DAYS = 7;
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final DateTimeFormatter JIRA_FORMAT = DateTimeFormat.forPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
+
+    private static final String[] USERS = { "alice", "bob", "carol", "dave", "erin", "frank", "grace", "heidi" };
+    private static final String[] STATUSES = { "Open", "In Progress", "Pending Review", "Pending Verification", "Closed" };
+    private static final String[] LABELS = { "performance", "backfill", "regression", "customer", "tech-debt" };
+    private static final String[] COUNTRIES = { "US", "JP", "GB", "DE", "BR", "IN" };
+    /** Inward then outward description of each link type, in the order /rest/api/2/issueLinkType lists them. */
+    private static final String[] LINK_TYPES = { "is blocked by", "blocks", "is duplicated by", "duplicates" };
+
+    public static CustomFieldDefinition[] customFields() throws IOException {
+        try (final InputStream in = JiraFixtures.class.getResourceAsStream("/customfields/example-custom-fields.json")) {
+            return CustomFieldDefinitionParser.parseCustomFields(in);
+        }
+    }
+
+    public static String[] linkTypes() {
+        return LINK_TYPES.clone();
+    }
+
+    public static JiraActionsIndexBuilderConfig config(final CustomFieldDefinition[] customFields,
+                                                       final String indexName) {
+        return ImmutableJiraActionsIndexBuilderConfig.builder()
+                .jiraUsername("")
+                .jiraPassword("")
+                .jiraBaseURL("https://jira.example.com")
+                .jiraFields("")
+                .jiraExpand("changelog")
+                .jiraProject("")
+                .excludedJiraProject("")
+                .iuploadURL("")
+                .iuploadUsername("")
+                .iuploadPassword("")
+                .startDate(START.toString("yyyy-MM-dd"))
+                .endDate(START.plusDays(DAYS + 1).toString("yyyy-MM-dd"))
+                .jiraBatchSize(50)
+                .indexName(indexName)
+                .customFields(customFields)
+                .build();
+    }
+
+    public static Issue parse(final ObjectNode issueNode) {
+        final Issue issue = IssueAPIParser.getObject(issueNode);
+        if (issue == null) {
+            throw new IllegalStateException("Fixture " + issueNode.get("key") + " didn't parse");
+        }
+        return issue;
+    }
+
+    public static ObjectNode issue(final Random random, final String key, final int histories, final int comments) {
+        final ObjectNode issue = mapper.createObjectNode();
+        issue.put("key", key);
+
+        final long span = DAYS * 24L * 3600 * 1000;
+        final ObjectNode fields = issue.putObject("fields");
+        fields.put("created", format(START));
+        // JIRA bumps updated with every change, and the Paginator relies on that to know when it's done
+        final long lastComment = comments == 0 ? 0 : comments * span / (comments + 1) + 1000;
+        final long lastHistory = histories == 0 ? 0 : histories * span / (histories + 1);
+        fields.put("updated", format(START.plus(Math.max(lastComment, lastHistory))));
+        fields.set("creator", user(pick(random, USERS)));
+        fields.set("assignee", user(pick(random, USERS)));
+        fields.set("reporter", user(pick(random, USERS)));
+        fields.putObject("issuetype").put("name", "Bug");
+        final ObjectNode project = fields.putObject("project");
+        project.put("name", "Alphabet Soup");
+        project.put("key", key.substring(0, key.indexOf('-')));
+        project.putObject("projectCategory").put("name", "Engineering");
+        fields.putObject("status").put("name", STATUSES[STATUSES.length - 1]);
+        fields.putObject("resolution").put("name", "Fixed");
+        fields.putObject("priority").put("name", "Major");
+        fields.put("summary", "Synthetic issue " + key + " with a\ttab in its summary");
+        fields.put("duedate", START.plusDays(DAYS).toString("yyyy-MM-dd"));
+        fields.putArray("fixVersions").addObject().put("name", "1.2.3");
+        fields.putArray("components").addObject().put("name", "Builder");
+        final ArrayNode labels = fields.putArray("labels");
+        labels.add(pick(random, LABELS));
+        labels.add(pick(random, LABELS));
+
+        fields.put("customfield_12491", "ABC-" + random.nextInt(1000));
+        fields.put("customfield_12090", (double) random.nextInt(13));
+        fields.set("customfield_10003", user(pick(random, USERS)));
+        final ArrayNode countries = fields.putArray("customfield_15290");
+        countries.addObject().put("value", pick(random, COUNTRIES));
+        countries.addObject().put("value", pick(random, COUNTRIES));
+
+        final ArrayNode commentArray = fields.putObject("comment").putArray("comments");
+        for (int i = 0; i < comments; i++) {
+            final ObjectNode comment = commentArray.addObject();
+            comment.put("id", String.valueOf(i));
+            comment.set("author", user(pick(random, USERS)));
+            comment.put("body", "Comment " + i);
+            comment.put("created", format(START.plus((i + 1) * span / (comments + 1) + 1000)));
+        }
+
+        final ArrayNode historyArray = issue.putObject("changelog").putArray("histories");
+        for (int i = 0; i < histories; i++) {
+            final ObjectNode history = historyArray.addObject();
+            history.set("author", user(pick(random, USERS)));
+            history.put("created", format(START.plus((i + 1) * span / (histories + 1))));
+            final ArrayNode items = history.putArray("items");
+            final int numItems = 1 + random.nextInt(3);
+            for (int j = 0; j < numItems; j++) {
+                addItem(random, key, items);
+            }
+        }
+
+        return issue;
+    }
+
+    private static void addItem(final Random random, final String key, final ArrayNode items) {
+        final ObjectNode item = items.addObject();
+        switch (random.nextInt(8)) {
+            case 0:
+                item.put("field", "status");
+                item.put("fieldtype", "jira");
+                item.put("fromString", pick(random, STATUSES));
+                item.put("toString", pick(random, STATUSES));
+                break;
+            case 1: {
+                final String from = pick(random, USERS);
+                final String to = pick(random, USERS);
+                item.put("field", "assignee");
+                item.put("fieldtype", "jira");
+                item.put("from", from);
+                item.put("fromString", displayName(from));
+                item.put("to", to);
+                item.put("toString", displayName(to));
+                break;
+            }
+            case 2:
+                item.put("field", "labels");
+                item.put("fieldtype", "jira");
+                item.put("fromString", pick(random, LABELS));
+                item.put("toString", pick(random, LABELS) + " " + pick(random, LABELS));
+                break;
+            case 3:
+                item.put("field", "Link");
+                item.put("fieldtype", "jira");
+                item.put("to", key);
+                item.put("toString", "This issue " + pick(random, LINK_TYPES) + " ABC-" + random.nextInt(1000));
+                break;
+            case 4:
+                item.put("field", "Epic Link");
+                item.put("fieldtype", "custom");
+                item.put("toString", "ABC-" + random.nextInt(1000));
+                break;
+            case 5:
+                item.put("field", "Story Points");
+                item.put("fieldtype", "custom");
+                item.put("fromString", String.valueOf(random.nextInt(13)));
+                item.put("toString", String.valueOf(random.nextInt(13)));
+                break;
+            case 6: {
+                final String from = pick(random, USERS);
+                final String to = pick(random, USERS);
+                item.put("field", "Verifier");
+                item.put("fieldtype", "custom");
+                item.put("from", from);
+                item.put("fromString", displayName(from));
+                item.put("to", to);
+                item.put("toString", displayName(to));
+                break;
+            }
+            default:
+                item.put("field", "Countries");
+                item.put("fieldtype", "custom");
+                item.put("toString", pick(random, COUNTRIES) + ", " + pick(random, COUNTRIES));
+                break;
+        }
+    }
+
+    /**
+     * Someone moves {@code issue} to {@code status} at {@code time}, which also bumps its updated time.
+     */
+    public static void changeStatus(final ObjectNode issue, final DateTime time, final String status) {
+        final ObjectNode fields = (ObjectNode) issue.get("fields");
+        final ObjectNode history = ((ArrayNode) issue.get("changelog").get("histories")).addObject();
+        history.set("author", user(USERS[0]));
+        history.put("created", format(time));
+        final ObjectNode item = history.putArray("items").addObject();
+        item.put("field", "status");
+        item.put("fieldtype", "jira");
+        item.put("fromString", fields.get("status").get("name").asText());
+        item.put("toString", status);
+        fields.putObject("status").put("name", status);
+        fields.put("updated", format(time));
+    }
+
+    /** Parses the updated time back out of an issue made here. */
+    public static DateTime updated(final ObjectNode issue) {
+        return JIRA_FORMAT.parseDateTime(issue.get("fields").get("updated").asText());
+    }
+
+    public static ObjectNode user(final String key) {
+        final ObjectNode user = mapper.createObjectNode();
+        user.put("key", key);
+        user.put("name", key);
+        user.put("displayName", displayName(key));
+        return user;
+    }
+
+    private static String displayName(final String key) {
+        return Character.toUpperCase(key.charAt(0)) + key.substring(1) + " Example";
+    }
+
+    private static String format(final DateTime time) {
+        return JIRA_FORMAT.print(time);
+    }
+
+    private static <T> T pick(final Random random, final T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -66,6 +66,17 @@ public class TSVSpecBuilderTest extends EasyMockSupport {
         );
     }
 
+    @Test
+    public void testTimeMillis() {
+        builder.addTimeMillisColumn("time", Action::getTimestampMillis);
+        final long time = 1521835092;
+        EasyMock.expect(action.getTimestampMillis()).andReturn(time*1000 + 999).anyTimes();
+        verifyHeadersAndValues(
+                ImmutableList.of("time"),
+                ImmutableList.of(String.valueOf(time))
+        );
+    }
+
     @Test
     public void testLong() {
         builder.addLongColumn("issueage", Action::getIssueage);
@@ -130,6 +141,9 @@ public class TSVSpecBuilderTest extends EasyMockSupport {
     private CustomFieldValue newCustomFieldValue(final List<String> values) {
         final CustomFieldValue value = createNiceMock(CustomFieldValue.class);
         EasyMock.expect(value.getValues()).andReturn(values).anyTimes();
+        for (int i = 0; i < values.size(); i++) {
+            EasyMock.expect(value.getValue(i)).andReturn(values.get(i)).anyTimes();
+        }
         return value;
     }
 
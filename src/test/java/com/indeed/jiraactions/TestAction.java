@@ -21,4 +21,24 @@ public class TestAction {
 
         Assert.assertEquals(expected, action.getDueDateTime());
     }
+
+    @Test
+    public void testSnapshotKeepsItsState() {
+        final Action action = ImmutableAction.builder()
+                .from(defaultAction)
+                .status("Open")
+                .issueage(1)
+                .timeinstate(2)
+                .timesinceaction(3)
+                .timestamp(new DateTime(2017, 6, 15, 12, 30, JiraActionsUtil.RAMSES_TIME))
+                .build();
+        final MutableAction state = MutableAction.copyOf(action);
+        // Every field makes it through the state and back
+        final Action snapshot = state.toAction();
+        Assert.assertEquals(action, snapshot);
+
+        state.status = "Closed";
+        Assert.assertEquals("Open", snapshot.getStatus());
+        Assert.assertNotEquals(snapshot, state.toAction());
+    }
 }
@@ -0,0 +1,55 @@
+package com.indeed.jiraactions;
+
+import com.google.common.collect.ImmutableList;
+import org.joda.time.DateTime;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class TestActionList {
+    private static final DateTime base = new DateTime(2018, 4, 1, 0, 0, JiraActionsUtil.RAMSES_TIME);
+    private static final Action defaultAction = ImmutableProxy.createProxy(Action.class);
+
+    @Test
+    public void testMatchesFilteringOneByOne() {
+        // Ties, and a range that starts and ends right on actions
+        final List<Action> sorted = actionsAt(0, 1, 1, 2, 5, 5, 5, 8, 9);
+        final List<Action> unsorted = actionsAt(3, 1, 4, 1, 5, 9, 2, 6);
+        for (final List<Action> actions : ImmutableList.of(sorted, unsorted)) {
+            final ActionList actionList = ActionList.of(actions);
+            Assert.assertEquals(actions, actionList);
+            for (int hour = -1; hour <= 10; hour++) {
+                final long millis = base.plusHours(hour).getMillis();
+                Assert.assertEquals(
+                        actions.stream().filter(a -> a.getTimestamp().getMillis() > millis).collect(Collectors.toList()),
+                        actionList.after(millis));
+
+                final DateTime start = base.plusHours(hour);
+                final DateTime end = base.plusHours(hour + 3);
+                Assert.assertEquals(
+                        actions.stream().filter(a -> a.isInRange(start, end)).collect(Collectors.toList()),
+                        actionList.inRange(start, end));
+                Assert.assertEquals(
+                        actions.stream().filter(a -> a.isInRange(start, end) && a.getTimestamp().getMillis() > millis)
+                                .collect(Collectors.toList()),
+                        actionList.after(millis).inRange(start, end));
+            }
+            Assert.assertEquals(actions.get(actions.size() - 1).getTimestamp().getMillis(), actionList.getLastMillis());
+        }
+    }
+
+    private static List<Action> actionsAt(final int... hours) {
+        final List<Action> actions = new ArrayList<>(hours.length);
+        for (final int hour : hours) {
+            actions.add(ImmutableAction.builder()
+                    .from(defaultAction)
+                    .issuekey("ABC-" + actions.size())
+                    .timestamp(base.plusHours(hour))
+                    .build());
+        }
+        return actions;
+    }
+}
@@ -0,0 +1,271 @@
+package com.indeed.jiraactions;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.joda.time.DateTime;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+public class TestJiraActionsIndexBuilderEndToEnd {
+    private static final int ISSUES = 40;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRateLimitedRunWritesEveryActionOnce() throws Exception {
+        final Random random = new Random(1);
+        int expectedRows = 0;
+        try (final JiraFixtureServer server = JiraFixtureServer.start()) {
+            for (int i = ISSUES; i > 0; i--) {
+                final int histories = random.nextInt(20);
+                final int comments = random.nextInt(5);
+                server.addIssue(JiraFixtures.issue(random, "ABC-" + i, histories, comments));
+                expectedRows += 1 + histories + comments;
+            }
+            server.withRateLimitEvery(4)
+                    .moveToFrontAfterSearch(3, "ABC-2");
+
+            final File output = folder.newFolder("output");
+            run(server, output, "");
+
+            final List<String> rows = readRows(output);
+            Assert.assertEquals(expectedRows, rows.size());
+            Assert.assertEquals(rows.size(), new HashSet<>(rows).size());
+            // One pass through everything, and a second that stops once it gets back to what it's already seen
+            Assert.assertTrue(server.getSearches() > ISSUES / 7 + 1);
+        }
+    }
+
+    @Test
+    public void testReplayingARecordingWritesTheSameRows() throws Exception {
+        final Random random = new Random(2);
+        final File recording = folder.newFolder("recording");
+        final File recorded = folder.newFolder("recorded");
+        try (final JiraFixtureServer server = JiraFixtureServer.start()) {
+            for (int i = ISSUES; i > 0; i--) {
+                server.addIssue(JiraFixtures.issue(random, "ABC-" + i, random.nextInt(20), random.nextInt(5)));
+            }
+            final ObjectNode user = JiraFixtures.user("alice");
+            user.put("displayName", "Alice From The Recording");
+            server.addUser(user);
+            run(server, recorded, recording.getPath());
+        }
+
+        final File replayed = folder.newFolder("replayed");
+        try (final JiraFixtureServer server = JiraFixtureServer.replay(recording.toPath())) {
+            run(server, replayed, "");
+            Assert.assertTrue(server.getSearches() > 0);
+        }
+
+        Assert.assertEquals(readFiles(recorded), readFiles(replayed));
+    }
+
+    @Test
+    public void testResumingAFailedRunWritesEveryActionOnce() throws Exception {
+        final Random random = new Random(3);
+        int expectedRows = 0;
+        try (final JiraFixtureServer server = JiraFixtureServer.start()) {
+            for (int i = ISSUES; i > 0; i--) {
+                final int histories = random.nextInt(20);
+                final int comments = random.nextInt(5);
+                server.addIssue(JiraFixtures.issue(random, "ABC-" + i, histories, comments));
+                expectedRows += 1 + histories + comments;
+            }
+
+            final File output = folder.newFolder("output");
+            final File checkpointFile = new File(folder.getRoot(), "checkpoint.json");
+            final ImmutableJiraActionsIndexBuilderConfig config = config(server, output)
+                    .withCheckpointFile(checkpointFile.getPath())
+                    .withCheckpointIntervalSeconds(0);
+
+            server.failSearchesAfter(4);
+            try {
+                new JiraActionsIndexBuilder(config).run();
+                Assert.fail("JIRA went down, so the run should have failed");
+            } catch (final RuntimeException expected) {
+            }
+            final Checkpoint checkpoint = Checkpoint.read(checkpointFile.toPath());
+            Assert.assertEquals(0, checkpoint.pass);
+            Assert.assertTrue(checkpoint.startAt > 0);
+
+            server.failSearchesAfter(0);
+            new JiraActionsIndexBuilder(config.withResume(true)).run();
+
+            final List<String> rows = readRows(output);
+            Assert.assertEquals(expectedRows, rows.size());
+            Assert.assertEquals(rows.size(), new HashSet<>(rows).size());
+            Assert.assertFalse(checkpointFile.exists());
+        }
+    }
+
+    @Test
+    public void testResumingAFailedUploadOnlyUploadsWhatsLeft() throws Exception {
+        final Random random = new Random(5);
+        int expectedRows = 0;
+        try (final JiraFixtureServer server = JiraFixtureServer.start()) {
+            for (int i = ISSUES; i > 0; i--) {
+                final int histories = random.nextInt(20);
+                final int comments = random.nextInt(5);
+                server.addIssue(JiraFixtures.issue(random, "ABC-" + i, histories, comments));
+                expectedRows += 1 + histories + comments;
+            }
+
+            final File output = folder.newFolder("output");
+            final File checkpointFile = new File(folder.getRoot(), "checkpoint.json");
+            final ImmutableJiraActionsIndexBuilderConfig config = config(server, output)
+                    .withCheckpointFile(checkpointFile.getPath())
+                    .withIuploadURL(server.getIuploadUrl());
+
+            server.failUploadsAfter(3);
+            try {
+                new JiraActionsIndexBuilder(config).run();
+                Assert.fail("Uploads failed, so the run should have failed");
+            } catch (final IOException expected) {
+            }
+            final Checkpoint checkpoint = Checkpoint.read(checkpointFile.toPath());
+            Assert.assertTrue(checkpoint.processed);
+            Assert.assertTrue(checkpoint.uploadedFiles.containsAll(server.getUploads()));
+            Assert.assertEquals(3, server.getUploads().size());
+            Assert.assertEquals(JiraFixtures.DAYS + 1 - checkpoint.uploadedFiles.size(), output.list().length);
+
+            server.failUploadsAfter(0);
+            final int searches = server.getSearches();
+            new JiraActionsIndexBuilder(config.withResume(true)).run();
+            Assert.assertFalse(checkpointFile.exists());
+            Assert.assertEquals(0, output.list().length);
+            // Just the one to see there's something in the range; the rows all came from the files
+            Assert.assertEquals(searches + 1, server.getSearches());
+
+            final List<String> uploads = server.getUploads();
+            Assert.assertEquals(uploads.size(), new HashSet<>(uploads).size());
+            final List<String> rows = new ArrayList<>();
+            for (final String file : server.getUploadedFiles().values()) {
+                final List<String> lines = Arrays.asList(file.split("\r?\n"));
+                rows.addAll(lines.subList(1, lines.size()));
+            }
+            Assert.assertEquals(expectedRows, rows.size());
+            Assert.assertEquals(rows.size(), new HashSet<>(rows).size());
+        }
+    }
+
+    @Test
+    public void testIncrementalRunsOnlyWriteNewActions() throws Exception {
+        final Random random = new Random(4);
+        final List<ObjectNode> issues = new ArrayList<>();
+        int expectedRows = 0;
+        try (final JiraFixtureServer server = JiraFixtureServer.start()) {
+            for (int i = ISSUES; i > 0; i--) {
+                final int histories = random.nextInt(5);
+                final int comments = random.nextInt(3);
+                final ObjectNode issue = JiraFixtures.issue(random, "ABC-" + i, histories, comments);
+                issues.add(issue);
+                server.addIssue(issue);
+                expectedRows += 1 + histories + comments;
+            }
+
+            final File watermark = new File(folder.getRoot(), "watermark.json");
+            final int searchesBeforeFirst = server.getSearches();
+            final File first = folder.newFolder("first");
+            new JiraActionsIndexBuilder(config(server, first)
+                    .withJiraBatchSize(4)
+                    .withWatermarkFile(watermark.getPath())).run();
+            final List<String> firstRows = readRows(first);
+            Assert.assertEquals(expectedRows, firstRows.size());
+            Assert.assertEquals(firstRows.size(), new HashSet<>(firstRows).size());
+
+            // Two updates within the same minute, after everything else
+            final DateTime updated = JiraFixtures.START.plusDays(JiraFixtures.DAYS).plusHours(1);
+            JiraFixtures.changeStatus(issues.get(30), updated, "Open");
+            JiraFixtures.changeStatus(issues.get(5), updated.plusSeconds(30), "In Progress");
+            final int firstSearches = server.getSearches() - searchesBeforeFirst;
+            final File second = folder.newFolder("second");
+            final int searchesBefore = server.getSearches();
+            new JiraActionsIndexBuilder(config(server, second)
+                    .withJiraBatchSize(4)
+                    .withWatermarkFile(watermark.getPath())).run();
+            Assert.assertEquals(2, readRows(second).size());
+            // Only the last minute synced and what came after it, not everything again
+            Assert.assertTrue(server.getSearches() - searchesBefore < firstSearches / 2);
+            Assert.assertEquals("ABC-35", Watermark.read(watermark.toPath()).issueKey);
+
+            final File third = folder.newFolder("third");
+            new JiraActionsIndexBuilder(config(server, third)
+                    .withJiraBatchSize(4)
+                    .withWatermarkFile(watermark.getPath())).run();
+            Assert.assertEquals(0, readRows(third).size());
+        }
+    }
+
+    @Test
+    public void testIncrementalRunKeepsTheWatermarkWhenUploadsFail() throws Exception {
+        final Random random = new Random(6);
+        try (final JiraFixtureServer server = JiraFixtureServer.start()) {
+            for (int i = ISSUES; i > 0; i--) {
+                server.addIssue(JiraFixtures.issue(random, "ABC-" + i, random.nextInt(5), random.nextInt(3)));
+            }
+
+            final File watermark = new File(folder.getRoot(), "watermark.json");
+            final ImmutableJiraActionsIndexBuilderConfig config = config(server, folder.newFolder("output"))
+                    .withWatermarkFile(watermark.getPath())
+                    .withIuploadURL(server.getIuploadUrl());
+            server.failUploadsAfter(1);
+            try {
+                new JiraActionsIndexBuilder(config).run();
+                Assert.fail("Uploads failed, so the run should have failed");
+            } catch (final IOException expected) {
+            }
+            Assert.assertFalse(watermark.exists());
+
+            server.failUploadsAfter(0);
+            new JiraActionsIndexBuilder(config).run();
+            Assert.assertTrue(watermark.exists());
+        }
+    }
+
+    private static void run(final JiraFixtureServer server, final File output, final String recordDirectory)
+            throws Exception {
+        new JiraActionsIndexBuilder(config(server, output).withRecordDirectory(recordDirectory)).run();
+    }
+
+    private static ImmutableJiraActionsIndexBuilderConfig config(final JiraFixtureServer server, final File output)
+            throws IOException {
+        return ImmutableJiraActionsIndexBuilderConfig
+                .copyOf(JiraFixtures.config(JiraFixtures.customFields(), new File(output, "jira").getPath()))
+                .withJiraBaseURL(server.getBaseUrl())
+                .withJiraBatchSize(7)
+                .withJiraParallelism(1)
+                .withJiraBackoffMillis(1);
+    }
+
+    private static List<String> readRows(final File directory) throws IOException {
+        final List<String> rows = new ArrayList<>();
+        for (final List<String> lines : readFiles(directory).values()) {
+            rows.addAll(lines.subList(1, lines.size()));
+        }
+        return rows;
+    }
+
+    private static TreeMap<String, List<String>> readFiles(final File directory) throws IOException {
+        final TreeMap<String, List<String>> files = new TreeMap<>();
+        for (final File file : directory.listFiles()) {
+            final Path path = file.toPath();
+            files.put(file.getName(), Files.readAllLines(path, StandardCharsets.UTF_8));
+        }
+        Assert.assertFalse(Arrays.asList(directory.list()).isEmpty());
+        return files;
+    }
+}
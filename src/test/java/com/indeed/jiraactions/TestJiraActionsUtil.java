@@ -0,0 +1,60 @@
+package com.indeed.jiraactions;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.Days;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class TestJiraActionsUtil {
+    private static final DateTimeFormatter JIRA_FORMAT = DateTimeFormat.forPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
+    private static final DateTimeZone[] ZONES = {
+            DateTimeZone.UTC,
+            JiraActionsUtil.RAMSES_TIME,
+            DateTimeZone.forID("America/Chicago"),
+            DateTimeZone.forOffsetHoursMinutes(5, 30),
+            DateTimeZone.forOffsetHoursMinutes(-9, -30),
+    };
+
+    @Test
+    public void testParseMillisMatchesParseDateTime() {
+        final Random random = new Random(42);
+        final long from = new DateTime(1990, 1, 1, 0, 0, DateTimeZone.UTC).getMillis();
+        final long to = new DateTime(2040, 1, 1, 0, 0, DateTimeZone.UTC).getMillis();
+        for (int i = 0; i < 10000; i++) {
+            final long millis = from + (long) (random.nextDouble() * (to - from));
+            final String timestamp = JIRA_FORMAT.withZone(ZONES[i % ZONES.length]).print(millis);
+            Assert.assertEquals(timestamp, millis, JiraActionsUtil.parseMillis(timestamp));
+            Assert.assertEquals(timestamp, JiraActionsUtil.parseDateTime(timestamp).getMillis(),
+                    JiraActionsUtil.parseMillis(timestamp));
+        }
+
+        Assert.assertEquals(JiraActionsUtil.parseDateTime("2016-02-29T23:59:59.999+0000").getMillis(),
+                JiraActionsUtil.parseMillis("2016-02-29T23:59:59.999+0000"));
+        // Anything else is left to parseDateTime
+        Assert.assertEquals(JiraActionsUtil.parseDateTime("2017-01-01").getMillis(),
+                JiraActionsUtil.parseMillis("2017-01-01"));
+        Assert.assertEquals(JiraActionsUtil.parseDateTime("2017-01-01 12:00:00").getMillis(),
+                JiraActionsUtil.parseMillis("2017-01-01 12:00:00"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseMillisInvalidDate() {
+        JiraActionsUtil.parseMillis("2017-02-29T00:00:00.000-0600");
+    }
+
+    @Test
+    public void testToEpochDay() {
+        final DateTime epoch = new DateTime(1970, 1, 1, 0, 0, JiraActionsUtil.RAMSES_TIME);
+        for (DateTime day = new DateTime(2017, 12, 30, 0, 0, JiraActionsUtil.RAMSES_TIME);
+             day.getYear() < 2018 || day.getDayOfYear() < 3; day = day.plusHours(7)) {
+            Assert.assertEquals(day.toString(), Days.daysBetween(epoch, day.withTimeAtStartOfDay()).getDays(),
+                    JiraActionsUtil.toEpochDay(day.getMillis()));
+        }
+        Assert.assertEquals(-1, JiraActionsUtil.toEpochDay(epoch.getMillis() - 1));
+    }
+}
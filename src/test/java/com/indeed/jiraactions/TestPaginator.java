@@ -6,12 +6,18 @@ import com.indeed.jiraactions.api.response.issue.fields.Field;
 import org.easymock.EasyMock;
 import org.easymock.EasyMockSupport;
 import org.joda.time.DateTime;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
 
 public class TestPaginator {
     private final Action defaultAction = ImmutableProxy.createProxy(Action.class);
@@ -453,6 +459,69 @@ public class TestPaginator {
         mw.verifyAll();
     }
 
+    @Test
+    public void testParallelProcessingWritesInPageOrder() throws InterruptedException {
+        final List<Issue> page = new ArrayList<>();
+        final Map<Issue, List<Action>> actions = new HashMap<>();
+        for (int i = 0; i < 50; i++) {
+            final Issue issue = createIssue("A-" + i);
+            page.add(issue);
+            actions.put(issue, ImmutableList.of(getCreateAction(issue, mid.minusMinutes(i))));
+        }
+
+        final List<String> written = Collections.synchronizedList(new ArrayList<>());
+        final Random random = new Random(42);
+        final PageProvider parallelProvider = new PageProvider() {
+            private boolean hasPage = true;
+
+            @Override
+            public boolean hasPage() {
+                return hasPage;
+            }
+
+            @Override
+            public void reset() {
+                hasPage = true;
+            }
+
+            @Override
+            public Iterable<Issue> getPage() {
+                hasPage = false;
+                return page;
+            }
+
+            @Override
+            public List<Action> getActions(final Issue issue) {
+                try {
+                    Thread.sleep(random.nextInt(5));
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return actions.get(issue);
+            }
+
+            @Override
+            public void writeActions(final List<Action> toWrite) {
+                toWrite.forEach(action -> written.add(action.getIssuekey()));
+            }
+
+            @Override
+            public int getPosition() {
+                return hasPage ? 0 : page.size();
+            }
+
+            @Override
+            public void seek(final int position) {
+                hasPage = position == 0;
+            }
+        };
+
+        final Paginator paginator = new Paginator(parallelProvider, start, end, 4);
+        paginator.process();
+
+        Assert.assertEquals(page.stream().map(issue -> issue.key).collect(Collectors.toList()), written);
+    }
+
     private Action getCreateAction(final Issue issue, final DateTime timestamp) {
         issue.fields.updated = timestamp;
         return ImmutableAction.builder()
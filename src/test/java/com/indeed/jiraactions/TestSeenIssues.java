@@ -0,0 +1,61 @@
+package com.indeed.jiraactions;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+public class TestSeenIssues {
+    @Test
+    public void testLastActionTimesSurviveGrowing() {
+        final SeenIssues seenIssues = new SeenIssues(4);
+        final Map<String, Long> expected = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            final String key = (i % 3 == 0 ? "ABC-" : "XYZ-") + i;
+            seenIssues.setLastActionTime(key, i * 1000L);
+            expected.put(key, i * 1000L);
+        }
+        // Keys that aren't PROJECT-number still work, and don't collide with ones that are
+        seenIssues.setLastActionTime("ABC-", 1);
+        seenIssues.setLastActionTime("ABC", 2);
+        seenIssues.setLastActionTime("ABC-0x1", 3);
+        expected.put("ABC-", 1L);
+        expected.put("ABC", 2L);
+        expected.put("ABC-0x1", 3L);
+
+        Assert.assertEquals(expected.size(), seenIssues.size());
+        for (final Map.Entry<String, Long> entry : expected.entrySet()) {
+            Assert.assertEquals(entry.getKey(), (long) entry.getValue(), seenIssues.getLastActionTime(entry.getKey()));
+        }
+        Assert.assertEquals(SeenIssues.NONE, seenIssues.getLastActionTime("ABC-10000"));
+        Assert.assertEquals(SeenIssues.NONE, seenIssues.getLastActionTime("NEW-1"));
+
+        final Map<String, Long> iterated = new HashMap<>();
+        seenIssues.forEachLastActionTime(iterated::put);
+        Assert.assertEquals(expected, iterated);
+    }
+
+    @Test
+    public void testSeenInPass() {
+        final SeenIssues seenIssues = new SeenIssues();
+        seenIssues.markSeenInPass("ABC-1", 0);
+        seenIssues.markSeenInPass("ABC-2", 0);
+        seenIssues.markSeenInPass("ABC-2", 1);
+
+        Assert.assertTrue(seenIssues.wasSeenInPass("ABC-1", 0));
+        Assert.assertFalse(seenIssues.wasSeenInPass("ABC-1", 1));
+        Assert.assertTrue(seenIssues.wasSeenInPass("ABC-2", 1));
+        Assert.assertFalse(seenIssues.wasSeenInPass("ABC-3", 1));
+        // Seeing an issue isn't the same as writing actions for it
+        Assert.assertEquals(0, seenIssues.size());
+        Assert.assertEquals(SeenIssues.NONE, seenIssues.getLastActionTime("ABC-1"));
+
+        final Set<String> inPass = new HashSet<>();
+        seenIssues.forEachSeenInPass(1, inPass::add);
+        Assert.assertEquals(Collections.singleton("ABC-2"), inPass);
+    }
+}
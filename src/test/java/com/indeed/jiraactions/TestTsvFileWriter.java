@@ -0,0 +1,122 @@
+package com.indeed.jiraactions;
+
+import com.google.common.base.Throwables;
+import com.indeed.jiraactions.api.HttpTransport;
+import com.indeed.jiraactions.api.customfields.CustomFieldApiParser;
+import com.indeed.jiraactions.api.customfields.CustomFieldDefinition;
+import com.indeed.jiraactions.api.response.issue.Issue;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+public class TestTsvFileWriter {
+    private File directory;
+    private CustomFieldDefinition[] customFields;
+    private List<Action> actions;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("tsv-writer").toFile();
+        customFields = JiraFixtures.customFields();
+        final UserLookupService userLookupService = new FriendlyUserLookupService();
+        final ActionFactory actionFactory = new ActionFactory(userLookupService,
+                new CustomFieldApiParser(userLookupService), JiraFixtures.config(customFields, "jira"));
+        final Random random = new Random(42);
+        actions = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            final Issue issue = JiraFixtures.parse(JiraFixtures.issue(random, "ABC-" + i, 50, 50));
+            actions.addAll(new ActionsBuilder(actionFactory, issue, JiraFixtures.START,
+                    JiraFixtures.START.plusDays(JiraFixtures.DAYS + 1)).buildActions());
+        }
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Test
+    public void testWriterThreadsWriteTheSameFiles() throws IOException {
+        final Map<String, String> oneThread = write("one", 1);
+        final Map<String, String> threads = write("threads", 3);
+        Assert.assertEquals(JiraFixtures.DAYS + 1, oneThread.size());
+        Assert.assertEquals(oneThread, threads);
+    }
+
+    @Test
+    public void testFailedWriteShowsUpOnSyncAndUpload() throws IOException {
+        final String indexName = new File(directory, "jira").getPath();
+        final JiraActionsIndexBuilderConfig config = ImmutableJiraActionsIndexBuilderConfig
+                .copyOf(JiraFixtures.config(customFields, indexName))
+                .withWriterThreads(3);
+        final Action action = actions.get(0);
+        final Action broken = (Action) Proxy.newProxyInstance(Action.class.getClassLoader(),
+                new Class<?>[] { Action.class }, (proxy, method, args) -> {
+                    if ("getSummary".equals(method.getName())) {
+                        throw new IllegalStateException("Broken");
+                    }
+                    return method.invoke(action, args);
+                });
+
+        try (final HttpTransport httpTransport = new HttpTransport(config)) {
+            final TsvFileWriter writer = new TsvFileWriter(config, httpTransport, Arrays.asList(JiraFixtures.linkTypes()));
+            writer.createFileAndWriteHeaders();
+            writer.writeActions(Collections.singletonList(broken));
+            try {
+                writer.sync();
+                Assert.fail("The row couldn't be written");
+            } catch (final IOException expected) {
+                Assert.assertTrue(Throwables.getRootCause(expected) instanceof IllegalStateException);
+            }
+            try {
+                writer.uploadTsvFile();
+                Assert.fail("The files are missing a row, so they mustn't be uploaded");
+            } catch (final IOException expected) {
+                Assert.assertTrue(Throwables.getRootCause(expected) instanceof IllegalStateException);
+            }
+        }
+    }
+
+    /** The contents of each day's file, by date. */
+    private Map<String, String> write(final String name, final int writerThreads) throws IOException {
+        final File subdirectory = new File(directory, name);
+        Assert.assertTrue(subdirectory.mkdir());
+        final String indexName = new File(subdirectory, "jira").getPath();
+        final JiraActionsIndexBuilderConfig config = ImmutableJiraActionsIndexBuilderConfig
+                .copyOf(JiraFixtures.config(customFields, indexName))
+                .withWriterThreads(writerThreads);
+
+        try (final HttpTransport httpTransport = new HttpTransport(config)) {
+            final TsvFileWriter writer = new TsvFileWriter(config, httpTransport, Arrays.asList(JiraFixtures.linkTypes()));
+            writer.createFileAndWriteHeaders();
+            for (int i = 0; i < actions.size(); i += 17) {
+                writer.writeActions(actions.subList(i, Math.min(i + 17, actions.size())));
+            }
+            writer.sync();
+            Assert.assertEquals(JiraFixtures.DAYS, writer.getWrittenFiles().size());
+            writer.uploadTsvFile(); // Nothing to upload to
+        }
+
+        final Map<String, String> contents = new TreeMap<>();
+        for (final File file : subdirectory.listFiles()) {
+            contents.put(file.getName().replace("jira_", ""),
+                    new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+        }
+        return contents;
+    }
+}
@@ -0,0 +1,51 @@
+package com.indeed.jiraactions;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+public class TestTsvRowEncoder {
+    private final Action defaultAction = ImmutableProxy.createProxy(Action.class);
+
+    @Test
+    public void testEscapesControlCharacters() throws IOException {
+        final List<TSVColumnSpec> columnSpecs = new TSVSpecBuilder()
+                .addColumn("issuekey", Action::getIssuekey)
+                .addColumn("summary", Action::getSummary)
+                .addColumn("status", Action::getStatus)
+                .build();
+        final TsvRowEncoder encoder = new TsvRowEncoder(columnSpecs);
+
+        final Action action = ImmutableAction.builder()
+                .from(defaultAction)
+                .issuekey("A-1")
+                .summary("tab\there, newline\nthere\r\nand a \\ backslash")
+                .status("")
+                .build();
+        Assert.assertEquals("A-1\ttab\\there, newline\\nthere\\r\\nand a \\ backslash\t", encoder.encode(action));
+
+        // The buffer is reused, so a shorter row mustn't pick up anything from the one before.
+        final Action shorter = ImmutableAction.builder().from(action).summary("short").status("Open").build();
+        final StringWriter writer = new StringWriter();
+        encoder.write(shorter, writer);
+        Assert.assertEquals("A-1\tshort\tOpen", writer.toString());
+    }
+
+    @Test
+    public void testGrowsForLongValues() {
+        final StringBuilder summary = new StringBuilder();
+        final StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            summary.append("\t\n");
+            expected.append("\\t\\n");
+        }
+        final TsvRowEncoder encoder = new TsvRowEncoder(ImmutableList.of(
+                ImmutableTSVColumnSpec.of("summary", Action::getSummary)));
+        final Action action = ImmutableAction.builder().from(defaultAction).summary(summary.toString()).build();
+        Assert.assertEquals(expected.toString(), encoder.encode(action));
+    }
+}
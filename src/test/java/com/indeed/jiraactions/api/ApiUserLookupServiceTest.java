@@ -2,6 +2,11 @@ package com.indeed.jiraactions.api;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableList;
+import com.indeed.jiraactions.ImmutableJiraActionsIndexBuilderConfig;
+import com.indeed.jiraactions.JiraActionsIndexBuilderConfig;
+import com.indeed.jiraactions.api.customfields.CustomFieldDefinition;
 import com.indeed.jiraactions.api.response.issue.ImmutableUser;
 import com.indeed.jiraactions.api.response.issue.User;
 
@@ -9,6 +14,15 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ApiUserLookupServiceTest {
     @Test
@@ -23,4 +37,93 @@ public class ApiUserLookupServiceTest {
                 .build();
         Assert.assertEquals(expectedUser, user);
     }
+
+    @Test
+    public void testEachUserIsLookedUpOnce() throws Exception {
+        final JiraActionsIndexBuilderConfig config = config();
+        final FakeUserApiCaller apiCaller = new FakeUserApiCaller(config);
+        final List<String> keys = ImmutableList.of("alice", "bob", "carol", "dave", "erin", "frank");
+
+        final ExecutorService callers = Executors.newFixedThreadPool(8);
+        try (final ApiUserLookupService userLookupService = new ApiUserLookupService(config, apiCaller)) {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(callers.submit(() -> userLookupService.prefetch(keys)));
+                futures.add(callers.submit(() -> {
+                    for (final String key : keys) {
+                        Assert.assertEquals(key, userLookupService.getUser(key).getName());
+                    }
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+
+            Assert.assertEquals(keys.size(), userLookupService.numLookups());
+            for (final String key : keys) {
+                Assert.assertEquals(1, apiCaller.calls.get(key).get());
+            }
+            Assert.assertEquals(User.NOBODY, userLookupService.getUser(""));
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testLookupsAfterCloseDontHang() throws Exception {
+        final JiraActionsIndexBuilderConfig config = config();
+        final ApiUserLookupService userLookupService = new ApiUserLookupService(config, new FakeUserApiCaller(config));
+        userLookupService.close();
+
+        userLookupService.prefetch(ImmutableList.of("alice", "bob"));
+        Assert.assertEquals("alice", userLookupService.getUser("alice").getName());
+        Assert.assertEquals("carol", userLookupService.getUser("carol").getName());
+    }
+
+    private static JiraActionsIndexBuilderConfig config() {
+        return ImmutableJiraActionsIndexBuilderConfig.builder()
+                .jiraUsername("user")
+                .jiraPassword("password")
+                .jiraBaseURL("https://jira.example.com")
+                .jiraFields("")
+                .jiraExpand("")
+                .jiraProject("")
+                .excludedJiraProject("")
+                .iuploadURL("")
+                .iuploadUsername("")
+                .iuploadPassword("")
+                .startDate("2018-04-01")
+                .endDate("2018-04-02")
+                .jiraBatchSize(1)
+                .userLookupParallelism(4)
+                .indexName("jira")
+                .customFields(new CustomFieldDefinition[0])
+                .build();
+    }
+
+    private static class FakeUserApiCaller extends ApiCaller {
+        private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+
+        FakeUserApiCaller(final JiraActionsIndexBuilderConfig config) throws IOException {
+            super(config, new HttpTransport(config));
+        }
+
+        @Override
+        public JsonNode getJsonNode(final String url) throws IOException {
+            final String key = url.substring(url.indexOf("key=") + "key=".length());
+            calls.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+            try {
+                Thread.sleep(20);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            final ObjectNode node = new ObjectMapper().createObjectNode();
+            node.put("key", key);
+            node.put("name", key);
+            node.put("displayName", key.toUpperCase());
+            node.putObject("groups").putArray("items");
+            return node;
+        }
+    }
 }
@@ -0,0 +1,75 @@
+package com.indeed.jiraactions.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.indeed.jiraactions.ImmutableJiraActionsIndexBuilderConfig;
+import com.indeed.jiraactions.JiraActionsIndexBuilderConfig;
+import com.indeed.jiraactions.api.customfields.CustomFieldDefinition;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+public class TestApiCaller {
+    @Test
+    public void testGzipResponseIsDecodedAndCounted() throws Exception {
+        final StringBuilder body = new StringBuilder("{\"issues\": [");
+        for (int i = 0; i < 100; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"key\": \"ABC-").append(i).append("\"}");
+        }
+        body.append("]}");
+        final byte[] raw = body.toString().getBytes(StandardCharsets.UTF_8);
+        final ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (final GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+            out.write(raw);
+        }
+
+        final HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            final String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            final byte[] response = acceptEncoding != null && acceptEncoding.contains("gzip")
+                    ? gzipped.toByteArray() : raw;
+            if (response != raw) {
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(200, response.length);
+            try (final OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        server.start();
+
+        final JiraActionsIndexBuilderConfig config = ImmutableJiraActionsIndexBuilderConfig.builder()
+                .jiraUsername("user")
+                .jiraPassword("password")
+                .jiraBaseURL("http://localhost:" + server.getAddress().getPort())
+                .jiraFields("")
+                .jiraExpand("")
+                .jiraProject("")
+                .excludedJiraProject("")
+                .iuploadURL("")
+                .iuploadUsername("")
+                .iuploadPassword("")
+                .startDate("2018-04-01")
+                .endDate("2018-04-02")
+                .jiraBatchSize(1)
+                .indexName("jira")
+                .customFields(new CustomFieldDefinition[0])
+                .build();
+        try (final HttpTransport httpTransport = new HttpTransport(config)) {
+            final ApiCaller apiCaller = new ApiCaller(config, httpTransport);
+            final JsonNode node = apiCaller.getJsonNode(config.getJiraBaseURL() + "/rest/api/2/search");
+
+            Assert.assertEquals(100, node.get("issues").size());
+            Assert.assertEquals("ABC-99", node.get("issues").get(99).get("key").asText());
+            Assert.assertEquals(gzipped.size(), apiCaller.getCompressedBytes());
+            Assert.assertEquals(raw.length, apiCaller.getDecompressedBytes());
+        } finally {
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.indeed.jiraactions.api;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+
+public class TestIssueAPIParser {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    @Test
+    public void testParseSearchResponse() throws IOException {
+        final String json = "{\"expand\":\"names,schema\",\"startAt\":0,\"maxResults\":4,\"total\":12,\"issues\":[" +
+                "{\"key\":\"ABC-1\",\"fields\":{\"created\":\"2018-04-01T12:00:00.000-0500\",\"summary\":\"One\"}}," +
+                "{\"key\":\"ABC-2\",\"fields\":{\"summary\":\"No created date\"}}," +
+                "{\"key\":\"ABC-3\",\"fields\":{\"created\":\"not a date\",\"labels\":[\"a\",\"b\"]}}," +
+                "{\"key\":\"ABC-4\",\"fields\":{\"created\":\"2018-04-02T12:00:00.000-0500\",\"summary\":\"Four\"}}" +
+                "]}";
+
+        final SearchResponse response;
+        try (final JsonParser parser = JSON_FACTORY.createParser(json)) {
+            response = IssueAPIParser.parseSearchResponse(parser);
+        }
+
+        Assert.assertEquals(12, response.getTotal());
+        Assert.assertEquals(4, response.getNumReturned());
+        Assert.assertEquals(2, response.getIssues().size());
+        Assert.assertEquals("ABC-1", response.getIssues().get(0).key);
+        Assert.assertEquals("One", response.getIssues().get(0).fields.summary);
+        Assert.assertEquals("ABC-4", response.getIssues().get(1).key);
+        Assert.assertEquals("Four", response.getIssues().get(1).fields.summary);
+    }
+
+    @Test
+    public void testParseEmptySearchResponse() throws IOException {
+        final SearchResponse response;
+        try (final JsonParser parser = JSON_FACTORY.createParser("{\"total\":0,\"issues\":[]}")) {
+            response = IssueAPIParser.parseSearchResponse(parser);
+        }
+
+        Assert.assertEquals(0, response.getTotal());
+        Assert.assertEquals(0, response.getNumReturned());
+        Assert.assertTrue(response.getIssues().isEmpty());
+    }
+}
@@ -1,9 +1,24 @@
 package com.indeed.jiraactions.api;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.indeed.jiraactions.ImmutableJiraActionsIndexBuilderConfig;
+import com.indeed.jiraactions.JiraActionsIndexBuilderConfig;
 import com.indeed.jiraactions.JiraActionsUtil;
+import com.indeed.jiraactions.api.customfields.CustomFieldDefinition;
+import com.indeed.jiraactions.api.response.issue.Issue;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 public class TestIssuesApiCaller {
     @Test
     public void testJiraFormatter() {
@@ -13,4 +28,111 @@ public class TestIssuesApiCaller {
         }
         Assert.assertEquals("2018-04-01 01:00", IssuesAPICaller.getDateStringInJiraTime("2018-04-01"));
     }
+
+    @Test
+    public void testPrefetchPreservesOrder() throws Exception {
+        final int total = 237;
+        final JiraActionsIndexBuilderConfig config = config();
+        final IssuesAPICaller caller = new IssuesAPICaller(config, new FakeSearchApiCaller(config, total));
+        try {
+            caller.setNumTotal();
+
+            final List<String> keys = new ArrayList<>();
+            while (caller.currentPageExist()) {
+                for (final Issue issue : caller.getIssuesWithBackoff()) {
+                    keys.add(issue.key);
+                }
+            }
+
+            Assert.assertEquals(total, keys.size());
+            for (int i = 0; i < total; i++) {
+                Assert.assertEquals("ABC-" + i, keys.get(i));
+            }
+        } finally {
+            caller.close();
+        }
+    }
+
+    @Test
+    public void testEachPacingOnlySlowsForItsOwnFailures() {
+        final JiraActionsIndexBuilderConfig config = ImmutableJiraActionsIndexBuilderConfig
+                .copyOf(config())
+                .withJiraBatchSize(20)
+                .withJiraBackoffMillis(100);
+        final IssuesAPICaller.Pacing failing = new IssuesAPICaller.Pacing(config);
+        final IssuesAPICaller.Pacing healthy = new IssuesAPICaller.Pacing(config);
+
+        Assert.assertEquals(100, failing.onFailure());
+        Assert.assertEquals(200, failing.onFailure());
+        healthy.onSuccess();
+        Assert.assertEquals(1, failing.getBatchSize());
+        Assert.assertEquals(22, healthy.getBatchSize());
+        Assert.assertEquals(400, failing.onFailure());
+        Assert.assertEquals(100, healthy.onFailure());
+    }
+
+    private static ImmutableJiraActionsIndexBuilderConfig config() {
+        return ImmutableJiraActionsIndexBuilderConfig.builder()
+                .jiraUsername("user")
+                .jiraPassword("password")
+                .jiraBaseURL("https://jira.example.com")
+                .jiraFields("status")
+                .jiraExpand("changelog")
+                .jiraProject("")
+                .excludedJiraProject("")
+                .iuploadURL("")
+                .iuploadUsername("")
+                .iuploadPassword("")
+                .startDate("2018-04-01")
+                .endDate("2018-04-02")
+                .jiraBatchSize(7)
+                .jiraParallelism(4)
+                .indexName("jira")
+                .customFields(new CustomFieldDefinition[0])
+                .build();
+    }
+
+    private static class FakeSearchApiCaller extends ApiCaller {
+        private static final JsonFactory JSON_FACTORY = new JsonFactory();
+        private static final Pattern START_AT = Pattern.compile("startAt=(\\d+)");
+        private static final Pattern MAX_RESULTS = Pattern.compile("maxResults=(\\d+)");
+
+        private final int total;
+        private final Random random = new Random(42);
+
+        private FakeSearchApiCaller(final JiraActionsIndexBuilderConfig config, final int total) throws IOException {
+            super(config, new HttpTransport(config));
+            this.total = total;
+        }
+
+        @Override
+        public <T> T getParsed(final String url, final ResponseParser<T> responseParser) throws IOException {
+            final ObjectNode response = JsonNodeFactory.instance.objectNode();
+            response.put("total", total);
+            final int startAt = getParam(START_AT, url);
+            final int maxResults = getParam(MAX_RESULTS, url);
+            final ArrayNode issues = response.putArray("issues");
+            for (int i = startAt; i < Math.min(startAt + maxResults, total); i++) {
+                final ObjectNode issue = issues.addObject();
+                issue.put("key", "ABC-" + i);
+                issue.putObject("fields").put("created", "2018-04-01T12:00:00.000-0500");
+            }
+
+            final int sleep;
+            synchronized (random) {
+                sleep = random.nextInt(20);
+            }
+            try {
+                Thread.sleep(sleep);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return responseParser.parse(JSON_FACTORY.createParser(response.toString()));
+        }
+
+        private static int getParam(final Pattern pattern, final String url) {
+            final Matcher matcher = pattern.matcher(url);
+            return matcher.find() ? Integer.parseInt(matcher.group(1)) : 0;
+        }
+    }
 }
@@ -0,0 +1,46 @@
+package com.indeed.jiraactions.api;
+
+import com.google.common.base.Splitter;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TestResponseRecorder {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRecordingTwiceKeepsBoth() throws IOException {
+        final Path directory = folder.getRoot().toPath();
+        new ResponseRecorder(directory).record("http://jira/first", bytes("first"));
+        final ResponseRecorder second = new ResponseRecorder(directory);
+        second.record("http://jira/second", bytes("second"));
+        second.record("http://jira/third", bytes("third"));
+
+        final Map<String, String> bodies = new HashMap<>();
+        final List<String> lines = Files.readAllLines(directory.resolve(ResponseRecorder.INDEX_FILE),
+                StandardCharsets.UTF_8);
+        for (final String line : lines) {
+            final List<String> parts = Splitter.on('\t').splitToList(line);
+            bodies.put(parts.get(1),
+                    new String(Files.readAllBytes(directory.resolve(parts.get(0))), StandardCharsets.UTF_8));
+        }
+        Assert.assertEquals(3, lines.size());
+        Assert.assertEquals("first", bodies.get("http://jira/first"));
+        Assert.assertEquals("second", bodies.get("http://jira/second"));
+        Assert.assertEquals("third", bodies.get("http://jira/third"));
+    }
+
+    private static byte[] bytes(final String body) {
+        return body.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,135 @@
+package com.indeed.jiraactions.api;
+
+import com.indeed.jiraactions.api.response.issue.ImmutableUser;
+import com.indeed.jiraactions.api.response.issue.User;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TestUserCache {
+    private static final long TTL = TimeUnit.HOURS.toMillis(1);
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final User johnDoe = ImmutableUser.builder()
+            .displayName("John Doe")
+            .name("johndoe")
+            .key("johndoe")
+            .addGroups("engineering", "jira-users")
+            .build();
+
+    @Test
+    public void testSurvivesRestart() throws Exception {
+        final Path file = folder.getRoot().toPath().resolve("users.jsonl");
+        final AtomicLong now = new AtomicLong(1_000_000);
+
+        try (final UserCache cache = new UserCache(file, TTL, now::get)) {
+            Assert.assertNull(cache.get("johndoe"));
+            cache.put(johnDoe);
+            Assert.assertEquals(johnDoe, cache.get("johndoe"));
+        }
+
+        // A line cut short by a killed run shouldn't lose the rest of the file.
+        Files.write(file, "{\"key\": \"trunc".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        now.addAndGet(TTL - 1);
+        try (final UserCache cache = new UserCache(file, TTL, now::get)) {
+            Assert.assertEquals(johnDoe, cache.get("johndoe"));
+        }
+
+        now.addAndGet(1);
+        try (final UserCache cache = new UserCache(file, TTL, now::get)) {
+            Assert.assertNull(cache.get("johndoe"));
+            Assert.assertEquals(0, cache.size());
+        }
+    }
+
+    @Test
+    public void testPutAfterTruncation() throws Exception {
+        final Path file = folder.getRoot().toPath().resolve("users.jsonl");
+        final AtomicLong now = new AtomicLong(1_000_000);
+        final User janeDoe = ImmutableUser.builder().from(johnDoe).key("janedoe").name("janedoe").build();
+
+        try (final UserCache cache = new UserCache(file, TTL, now::get)) {
+            cache.put(johnDoe);
+        }
+        Files.write(file, "{\"key\": \"trunc".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        try (final UserCache cache = new UserCache(file, TTL, now::get)) {
+            cache.put(janeDoe);
+        }
+
+        try (final UserCache cache = new UserCache(file, TTL, now::get)) {
+            Assert.assertEquals(johnDoe, cache.get("johndoe"));
+            Assert.assertEquals(janeDoe, cache.get("janedoe"));
+        }
+    }
+
+    @Test
+    public void testLastLineWinsAndCompacts() throws Exception {
+        final Path file = folder.getRoot().toPath().resolve("users.jsonl");
+        final AtomicLong now = new AtomicLong(1_000_000);
+        final User renamed = ImmutableUser.builder().from(johnDoe).displayName("John Q. Doe").build();
+
+        try (final UserCache cache = new UserCache(file, TTL, now::get)) {
+            for (int i = 0; i < 5; i++) {
+                cache.put(johnDoe);
+            }
+            cache.put(renamed);
+        }
+        Assert.assertEquals(6, Files.readAllLines(file, StandardCharsets.UTF_8).size());
+
+        try (final UserCache cache = new UserCache(file, TTL, now::get)) {
+            Assert.assertEquals(renamed, cache.get("johndoe"));
+        }
+        Assert.assertEquals(1, Files.readAllLines(file, StandardCharsets.UTF_8).size());
+    }
+
+    @Test
+    public void testAppendsInBatches() throws Exception {
+        final Path file = folder.getRoot().toPath().resolve("users.jsonl");
+        final AtomicLong now = new AtomicLong(1_000_000);
+
+        try (final UserCache cache = new UserCache(file, TTL, now::get)) {
+            for (int i = 0; i < 100; i++) {
+                cache.put(ImmutableUser.builder().from(johnDoe).key("user" + i).build());
+            }
+            Assert.assertEquals(64, Files.readAllLines(file, StandardCharsets.UTF_8).size());
+            Assert.assertEquals(100, cache.size());
+        }
+        Assert.assertEquals(100, Files.readAllLines(file, StandardCharsets.UTF_8).size());
+    }
+
+    @Test
+    public void testSharedWithACompaction() throws Exception {
+        final Path file = folder.getRoot().toPath().resolve("users.jsonl");
+        final AtomicLong now = new AtomicLong(1_000_000);
+        final User janeDoe = ImmutableUser.builder().from(johnDoe).key("janedoe").name("janedoe").build();
+
+        try (final UserCache running = new UserCache(file, TTL, now::get)) {
+            for (int i = 0; i < 5; i++) {
+                running.put(johnDoe);
+            }
+            running.flush();
+            // Another builder starting up compacts the file out from under this one
+            try (final UserCache starting = new UserCache(file, TTL, now::get)) {
+                Assert.assertEquals(1, Files.readAllLines(file, StandardCharsets.UTF_8).size());
+            }
+            running.put(janeDoe);
+        }
+
+        try (final UserCache cache = new UserCache(file, TTL, now::get)) {
+            Assert.assertEquals(johnDoe, cache.get("johndoe"));
+            Assert.assertEquals(janeDoe, cache.get("janedoe"));
+        }
+    }
+}
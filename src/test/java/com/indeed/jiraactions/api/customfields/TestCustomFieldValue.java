@@ -265,6 +265,20 @@ public class TestCustomFieldValue {
         Assert.assertEquals("230", CustomFieldValue.numericStringToMilliNumericString(".23"));
     }
 
+    @Test
+    public void testRenderedOnce() {
+        final CustomFieldValue points = new CustomFieldValue(storyPoints, "2.5");
+        Assert.assertSame(points.getValues(), points.getValues());
+        Assert.assertEquals("2500", points.getValue(0));
+        Assert.assertFalse(points.isEmpty());
+
+        final CustomFieldValue categories = new CustomFieldValue(sysadCategories, "", "Disk\tFull");
+        Assert.assertEquals("Disk<tab>Full", categories.getValue(1));
+        Assert.assertFalse(categories.isEmpty());
+        Assert.assertTrue(CustomFieldValue.emptyCustomField(sysadCategories).isEmpty());
+        Assert.assertTrue(new CustomFieldValue(storyPoints, "lots").isEmpty());
+    }
+
     private void testFromInitial(final CustomFieldDefinition definition, final String input, final String expected) throws IOException {
         final JsonNode node = OBJECT_MAPPER.readTree(input);
         final CustomFieldValue field = apiParser.customFieldFromInitialFields(definition, node);
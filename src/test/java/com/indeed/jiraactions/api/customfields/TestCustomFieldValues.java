@@ -0,0 +1,68 @@
+package com.indeed.jiraactions.api.customfields;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+public class TestCustomFieldValues {
+    private static final String DEFINITIONS = "["
+            + "{\"name\": \"Story Points\", \"customfieldid\": \"customfield_12090\", \"imhotepfieldname\": \"millistorypoints\", \"transformation\": \"multiply_by_thousand\"},"
+            + "{\"name\": \"Sysad Categories\", \"customfieldid\": \"customfield_17591\", \"imhotepfieldname\": \"sysad_category\", \"multivaluefieldconfiguration\": \"separate\"},"
+            + "{\"name\": \"Direct Cause\", \"customfieldid\": \"customfield_17490\", \"imhotepfieldname\": \"evnt_directcause\", \"multivaluefieldconfiguration\": \"expanded\"}"
+            + "]";
+
+    @Test
+    public void testLookups() throws IOException {
+        final CustomFieldDefinition[] definitions = CustomFieldDefinitionParser.parseCustomFields(
+                new ByteArrayInputStream(DEFINITIONS.getBytes(StandardCharsets.UTF_8)));
+        for (int i = 0; i < definitions.length; i++) {
+            Assert.assertEquals(i, definitions[i].getOrdinal());
+        }
+
+        final CustomFieldValue storyPoints = new CustomFieldValue(definitions[0], "1.5");
+        final CustomFieldValue categories = new CustomFieldValue(definitions[1], "Hardware", "Disk");
+        final CustomFieldValues values = CustomFieldValues.builder(definitions)
+                .put(definitions[0], storyPoints)
+                .put(definitions[1], categories)
+                .build();
+
+        Assert.assertSame(storyPoints, values.get(definitions[0]));
+        // A definition that wasn't loaded with the others is found by what it is
+        Assert.assertSame(categories, values.get(ImmutableCustomFieldDefinition.copyOf(definitions[1]).withOrdinal(-1)));
+        Assert.assertNull(values.get(definitions[2]));
+        Assert.assertNull(values.get("Story Points"));
+        Assert.assertEquals(ImmutableMap.of(definitions[0], storyPoints, definitions[1], categories), values);
+        Assert.assertEquals(ImmutableMap.of(definitions[0], storyPoints, definitions[1], categories), new HashMap<>(values));
+
+        final CustomFieldValue cause = new CustomFieldValue(definitions[2], "Human", "Typo");
+        final CustomFieldValues copy = CustomFieldValues.builder(definitions)
+                .from(values)
+                .put(definitions[2], cause)
+                .build();
+        Assert.assertEquals(2, values.size());
+        Assert.assertEquals(3, copy.size());
+        final Map<CustomFieldDefinition, CustomFieldValue> fromMap = CustomFieldValues.builder(definitions)
+                .from(new HashMap<>(copy))
+                .build();
+        Assert.assertEquals(copy, fromMap);
+
+        try {
+            copy.put(definitions[2], storyPoints);
+            Assert.fail("Actions share these, so they can't be changed");
+        } catch (final UnsupportedOperationException expected) {
+        }
+        Assert.assertSame(cause, copy.get(definitions[2]));
+
+        for (final CustomFieldValue value : copy.values()) {
+            for (int column = 0; column < value.getValues().size(); column++) {
+                Assert.assertEquals(value.getValues().get(column), value.getValue(column));
+            }
+        }
+    }
+}
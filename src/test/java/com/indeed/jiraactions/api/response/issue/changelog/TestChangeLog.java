@@ -20,7 +20,7 @@ public class TestChangeLog {
                 .name("authorA")
                 .key("authorA")
                 .build();
-        a.created = JiraActionsUtil.parseDateTime("2017-01-01 00:00:00");
+        a.created = JiraActionsUtil.parseMillis("2017-01-01 00:00:00");
         final Item changeA = new Item();
         changeA.field = "fixVersion";
         changeA.fromString = "";
@@ -33,7 +33,7 @@ public class TestChangeLog {
                 .name("authorB")
                 .key("authorB")
                 .build();
-        b.created = JiraActionsUtil.parseDateTime("2017-01-02 01:00:00");
+        b.created = JiraActionsUtil.parseMillis("2017-01-02 01:00:00");
         final Item changeB = new Item();
         changeB.field = "fixVersion";
         changeB.fromString = "End of Week 2017-01-06";
@@ -46,7 +46,7 @@ public class TestChangeLog {
                 .name("authorC")
                 .key("authorC")
                 .build();
-        c.created = JiraActionsUtil.parseDateTime("2017-01-02 12:00:00");
+        c.created = JiraActionsUtil.parseMillis("2017-01-02 12:00:00");
         final Item changeC = new Item();
         changeC.field = "fixVersion";
         changeC.fromString = "End of Week 2017-01-12";
@@ -59,7 +59,7 @@ public class TestChangeLog {
                 .name("authorD")
                 .key("authorD")
                 .build();
-        d.created = JiraActionsUtil.parseDateTime("2017-02-01 12:00:00");
+        d.created = JiraActionsUtil.parseMillis("2017-02-01 12:00:00");
         final Item changeD = new Item();
         changeD.field = "fixVersion";
         changeD.fromString = "NEXT_DEPLOY";
@@ -78,4 +78,47 @@ public class TestChangeLog {
         Assert.assertEquals(c, changelog.histories[2]);
         Assert.assertEquals(d, changelog.histories[3]);
     }
+
+    @Test
+    public void testGetFirstHistoryItem() {
+        final Item customStatus = item("status", true);
+        final Item summary = item("summary", false);
+        final Item status = item("status", false);
+        final Item labels = item("labels", false);
+        final Item laterSummary = item("summary", false);
+        final History second = history("2018-04-02", customStatus, summary);
+        final History first = history("2018-04-01", labels);
+        final History third = history("2018-04-03", status, laterSummary);
+
+        final ChangeLog changeLog = new ChangeLog();
+        changeLog.histories = new History[] { second, first, third };
+
+        Assert.assertSame(customStatus, changeLog.getFirstHistoryItem(true, "status"));
+        Assert.assertSame(status, changeLog.getFirstHistoryItem(false, "status"));
+        // Within the same history, the order of the fields decides
+        Assert.assertSame(customStatus, changeLog.getFirstHistoryItem(true, "status", "summary"));
+        Assert.assertSame(summary, changeLog.getFirstHistoryItem(true, "summary", "status"));
+        Assert.assertSame(summary, changeLog.getFirstHistoryItem(false, "status", "summary"));
+        Assert.assertSame(summary, changeLog.getFirstHistoryItem(false, "labels", "summary"));
+        Assert.assertNull(changeLog.getFirstHistoryItem(true, "nothing"));
+
+        // Sorting changes which history comes first
+        changeLog.sortHistories();
+        Assert.assertSame(labels, changeLog.getFirstHistoryItem(false, "labels", "summary"));
+        Assert.assertSame(summary, changeLog.getFirstHistoryItem(false, "summary"));
+    }
+
+    private static History history(final String created, final Item... items) {
+        final History history = new History();
+        history.created = JiraActionsUtil.parseMillis(created);
+        history.items = items;
+        return history;
+    }
+
+    private static Item item(final String field, final boolean customField) {
+        final Item item = new Item();
+        item.field = field;
+        item.customField = customField;
+        return item;
+    }
 }
@@ -0,0 +1,51 @@
+package com.indeed.jiraactions.api.response.issue.changelog.histories;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class TestHistory {
+    @Test
+    public void testGetItem() {
+        final Item status = item("status", false, "Closed");
+        final Item customStatus = item("status", true, "Open");
+        final Item emptyLabels = item("labels", false, "");
+        final Item labels = item("labels", false, "one two");
+        final Item emptyOtherLabels = item("other-labels", false, null);
+        final Item emptyMoreLabels = item("more-labels", false, "");
+        final History history = new History();
+        history.items = new Item[] { emptyMoreLabels, customStatus, emptyOtherLabels, status, emptyLabels, labels };
+
+        Assert.assertSame(status, history.getItem("status", false));
+        Assert.assertSame(customStatus, history.getItem("status", true));
+        Assert.assertTrue(history.itemExist("status"));
+        Assert.assertFalse(history.itemExist("summary"));
+        Assert.assertEquals("Closed", history.getItemLastValue("status"));
+        Assert.assertEquals("", history.getItemLastValue("other-labels"));
+
+        // The first with a value, whichever field it's for
+        Assert.assertSame(labels, history.getItem(false, "other-labels", "labels"));
+        // Otherwise the last without one
+        Assert.assertSame(emptyOtherLabels, history.getItem(false, "other-labels", "more-labels", "nothing"));
+        Assert.assertSame(emptyMoreLabels, history.getItem(false, "more-labels"));
+        Assert.assertNull(history.getItem(false, "nothing"));
+
+        Assert.assertEquals(Arrays.asList(customStatus, status), history.getAllItems("status"));
+        Assert.assertEquals(Collections.emptyList(), history.getAllItems("nothing"));
+
+        // Replacing the items replaces what we look up
+        history.items = new Item[] { labels };
+        Assert.assertNull(history.getItem("status", true));
+        Assert.assertSame(labels, history.getItem("labels", false));
+    }
+
+    private static Item item(final String field, final boolean customField, final String toString) {
+        final Item item = new Item();
+        item.field = field;
+        item.customField = customField;
+        item.toString = toString;
+        return item;
+    }
+}
@@ -1,11 +1,15 @@
 package com.indeed.jiraactions.api.response.issue.changelog.histories;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.IOException;
 import java.util.Map;
 
 public class TestItem {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
     @Test
     public void testMapping() {
         final Item item = new Item();
@@ -21,4 +25,18 @@ public class TestItem {
         item.setField("Issue Owner");
         Assert.assertEquals("issue-owner", item.field);
     }
+
+    @Test
+    public void testDictionaryValuesAreShared() throws IOException {
+        final Item status = MAPPER.readValue(
+                "{\"toString\": \"In Progress\", \"field\": \"status\", \"fromString\": \"Open\"}", Item.class);
+        final Item otherStatus = MAPPER.readValue(
+                "{\"field\": \"status\", \"fromString\": \"In Progress\", \"toString\": \"Closed\"}", Item.class);
+        Assert.assertEquals("Open", status.fromString);
+        Assert.assertSame(status.toString, otherStatus.fromString);
+
+        final Item summary = MAPPER.readValue("{\"field\": \"summary\", \"toString\": \"In Progress\"}", Item.class);
+        Assert.assertEquals("In Progress", summary.toString);
+        Assert.assertNotSame(status.toString, summary.toString);
+    }
 }
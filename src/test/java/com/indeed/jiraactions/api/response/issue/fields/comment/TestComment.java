@@ -17,7 +17,7 @@ public class TestComment {
         comment.author = user;
 
         comment.body = "body";
-        comment.created = JiraActionsUtil.parseDateTime("2017-01-01");
+        comment.created = JiraActionsUtil.parseMillis("2017-01-01");
 
         Assert.assertTrue(comment.isValid());
     }